@@ -0,0 +1,109 @@
+package com.example.pocketplan;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.pocketplan.aggregation.TransactionAggregator;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares one TransactionAggregator pass with the HashMap&lt;String, Double&gt;
+ * merge the weekly summary used to do, over the same in-memory records:
+ * time and allocations per record, logged as "AggregationBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class AggregationBenchmarkTest {
+
+    private static final String TAG = "AggregationBenchmark";
+    private static final int RECORDS = 200_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int CATEGORIES = 12;
+    private static final String[] NAMES = new String[CATEGORIES];
+
+    static {
+        for (int i = 0; i < CATEGORIES; i++) {
+            NAMES[i] = "Category " + i;
+        }
+    }
+
+    private final long[] times = new long[RECORDS];
+    private final int[] types = new int[RECORDS];
+    private final int[] categories = new int[RECORDS];
+    private final long[] amounts = new long[RECORDS];
+
+    @Test
+    public void aggregator_vsHashMapMerge() {
+        // A year of day keys, mostly expenses, amounts in paise
+        for (int i = 0; i < RECORDS; i++) {
+            times[i] = i % 365;
+            types[i] = i % 10 == 0 ? TransactionAggregator.INCOME : TransactionAggregator.EXPENSE;
+            categories[i] = (i * 7) % CATEGORIES;
+            amounts[i] = (i * 7_919L) % 1_000_000;
+        }
+        long[] monthStarts = new long[12];
+        for (int m = 0; m < 12; m++) {
+            monthStarts[m] = m * 31L;
+        }
+        TransactionAggregator aggregator = new TransactionAggregator(monthStarts, 365);
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            hashMapMerge();
+            aggregator.clear();
+            aggregate(aggregator);
+        }
+
+        Measurement map = Measurement.start();
+        Map<String, Double> byName = hashMapMerge();
+        map.stop();
+
+        aggregator.clear();
+        Measurement aggregation = Measurement.start();
+        aggregate(aggregator);
+        aggregation.stop();
+
+        map.log(TAG, "HashMap merge", RECORDS, "record");
+        aggregation.log(TAG, "TransactionAggregator (totals, categories, 12 buckets, counts)",
+                RECORDS, "record");
+
+        // Both against sums worked out directly from the records (the map holds rupees)
+        long[] expectedByCategory = new long[CATEGORIES];
+        long[] expectedSeries = new long[monthStarts.length];
+        for (int i = 0; i < RECORDS; i++) {
+            if (types[i] != TransactionAggregator.EXPENSE) continue;
+            expectedByCategory[categories[i]] += amounts[i];
+            expectedSeries[(int) Math.min(times[i] / 31, 11)] += amounts[i];
+        }
+        for (int category = 0; category < CATEGORIES; category++) {
+            assertEquals(NAMES[category], expectedByCategory[category],
+                    aggregator.getCategoryTotal(TransactionAggregator.EXPENSE, category));
+            assertEquals(NAMES[category], expectedByCategory[category] / 100.0,
+                    byName.get(NAMES[category]), 0.5);
+        }
+        assertArrayEquals(expectedSeries, aggregator.getSeries(TransactionAggregator.EXPENSE));
+
+        // Timings are only logged; they vary too much between devices to assert on
+        assertEquals("aggregator should not allocate per record", 0, aggregation.getAllocations());
+    }
+
+    private void aggregate(TransactionAggregator aggregator) {
+        for (int i = 0; i < RECORDS; i++) {
+            aggregator.add(times[i], types[i], categories[i], amounts[i]);
+        }
+    }
+
+    // The old shape: expenses keyed by category name, merged as boxed rupee doubles
+    private Map<String, Double> hashMapMerge() {
+        Map<String, Double> byName = new HashMap<>();
+        for (int i = 0; i < RECORDS; i++) {
+            if (types[i] != TransactionAggregator.EXPENSE) continue;
+            byName.merge(NAMES[categories[i]], amounts[i] / 100.0, Double::sum);
+        }
+        return byName;
+    }
+}
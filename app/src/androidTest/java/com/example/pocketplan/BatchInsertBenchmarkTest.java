@@ -0,0 +1,129 @@
+package com.example.pocketplan;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pocketplan.models.DataChange;
+import com.example.pocketplan.models.Transaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Times DatabaseHelper.addTransactions() on 100k rows against the
+ * row-at-a-time addTransaction() path. Results are written to logcat
+ * under the "InsertBenchmark" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BatchInsertBenchmarkTest {
+
+    private static final String TAG = "InsertBenchmark";
+    private static final int BATCH_ROWS = 100_000;
+    private static final int SINGLE_ROWS = 1_000; // extrapolated; 100k single inserts take minutes
+
+    private static final String[] CATEGORIES = {
+            "Food & Dining", "Transportation", "Shopping", "Bills & Utilities", "Other"
+    };
+
+    private DatabaseHelper helper;
+    private int[] categoryIds;
+    private int salaryId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        helper = new DatabaseHelper(context, null);
+        categoryIds = new int[CATEGORIES.length];
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            categoryIds[i] = (int) helper.addCategory(CATEGORIES[i]);
+        }
+        salaryId = (int) helper.addCategory("Salary");
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+    }
+
+    @Test
+    public void batchInsert_100kRows() {
+        List<Transaction> rows = generateRows(BATCH_ROWS);
+
+        long start = System.nanoTime();
+        long[] ids = helper.addTransactions(rows);
+        long batchMs = (System.nanoTime() - start) / 1_000_000;
+
+        for (long id : ids) {
+            assertNotEquals(-1, id);
+        }
+        assertEquals(BATCH_ROWS, helper.getBalanceSnapshot().getTransactionCount());
+        Log.i(TAG, "addTransactions: " + BATCH_ROWS + " rows in " + batchMs + " ms");
+    }
+
+    @Test
+    public void singleInsert_baseline() {
+        List<Transaction> rows = generateRows(SINGLE_ROWS);
+
+        long start = System.nanoTime();
+        for (Transaction t : rows) {
+            helper.addTransaction(t.getTitle(), t.getCategoryId(), t.getAmount(),
+                    t.getNote(), t.getType(), t.getTimestamp());
+        }
+        long singleMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(SINGLE_ROWS, helper.getBalanceSnapshot().getTransactionCount());
+        Log.i(TAG, "addTransaction: " + SINGLE_ROWS + " rows in " + singleMs + " ms (~"
+                + singleMs * (BATCH_ROWS / SINGLE_ROWS) + " ms projected for " + BATCH_ROWS + ")");
+    }
+
+    @Test
+    public void batchInsert_reportsFailedRows() {
+        List<Transaction> rows = generateRows(3);
+        rows.set(1, new Transaction(0, null, categoryIds[0], 1000, null, "EXPENSE", 0));
+
+        long[] ids = helper.addTransactions(rows);
+
+        assertNotEquals(-1, ids[0]);
+        assertEquals(-1, ids[1]);
+        assertNotEquals(-1, ids[2]);
+    }
+
+    @Test
+    public void batchInsert_publishesOneChange() {
+        List<DataChange> changes = new ArrayList<>();
+        helper.addChangeListener(changes::add);
+        long version = helper.getDataVersion();
+
+        helper.addTransactions(generateRows(1_000));
+
+        assertEquals(1, changes.size());
+        assertEquals(DataChange.Type.BULK_INSERTED, changes.get(0).getType());
+        assertEquals(version + 1, helper.getDataVersion());
+    }
+
+    private List<Transaction> generateRows(int count) {
+        List<Transaction> rows = new ArrayList<>(count);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            boolean income = i % 10 == 0;
+            rows.add(new Transaction(0,
+                    "Row " + i,
+                    income ? salaryId : categoryIds[i % categoryIds.length],
+                    (i % 500) * 100L + 50,
+                    i % 3 == 0 ? "note " + i : null,
+                    income ? "INCOME" : "EXPENSE",
+                    now - i * 60_000L));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.pocketplan;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks with EXPLAIN QUERY PLAN that the transaction aggregates are
+ * index seeks rather than full table scans.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseIndexTest {
+
+    private DatabaseHelper helper;
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        helper = new DatabaseHelper(context, null);
+        db = helper.getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+    }
+
+    @Test
+    public void categoryTotal_usesTypeCategoryIndex() {
+        String plan = explain("SELECT SUM(amount) FROM transactions" +
+                " WHERE type = 'EXPENSE' AND category_id = ?", "3");
+        assertTrue(plan, plan.contains(
+                "COVERING INDEX " + DatabaseHelper.INDEX_TRANSACTIONS_TYPE_CATEGORY_TIMESTAMP));
+    }
+
+    @Test
+    public void categoryTotals_doNotScanTable() {
+        // Either composite index serves this; which one depends on the range estimate
+        String plan = explain("SELECT category_id, SUM(amount) FROM transactions" +
+                " WHERE type = 'EXPENSE' AND timestamp >= ? AND timestamp < ?" +
+                " GROUP BY category_id", "0", String.valueOf(Long.MAX_VALUE));
+        assertTrue(plan, plan.contains("COVERING INDEX"));
+    }
+
+    @Test
+    public void rangeTotal_usesTypeTimestampIndex() {
+        String plan = explain("SELECT SUM(amount) FROM transactions" +
+                " WHERE type = 'EXPENSE' AND timestamp >= ? AND timestamp < ?", "0", "1000");
+        assertTrue(plan, plan.contains(
+                "COVERING INDEX " + DatabaseHelper.INDEX_TRANSACTIONS_TYPE_TIMESTAMP));
+    }
+
+    @Test
+    public void typeTotal_doesNotScanTable() {
+        String plan = explain("SELECT SUM(amount) FROM transactions WHERE type = 'INCOME'");
+        assertTrue(plan, plan.contains("COVERING INDEX"));
+    }
+
+    @Test
+    public void transactionPage_usesTimestampIndex() {
+        String plan = explain("SELECT * FROM transactions" +
+                " WHERE timestamp <= ? AND (timestamp < ? OR id < ?)" +
+                " ORDER BY timestamp DESC, id DESC LIMIT 50", "1000", "1000", "10");
+        assertTrue(plan, plan.contains(DatabaseHelper.INDEX_TRANSACTIONS_TIMESTAMP));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void amountPage_usesAmountIndex() {
+        String plan = explain("SELECT * FROM transactions" +
+                " WHERE amount <= ? AND (amount < ? OR id < ?)" +
+                " ORDER BY amount DESC, id DESC LIMIT 50", "1000", "1000", "10");
+        assertTrue(plan, plan.contains(DatabaseHelper.INDEX_TRANSACTIONS_AMOUNT));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void typeDatePage_isOrderedByIndex() {
+        String plan = explain("SELECT * FROM transactions WHERE type = ?" +
+                " AND timestamp >= ? AND (timestamp > ? OR id > ?)" +
+                " ORDER BY timestamp ASC, id ASC LIMIT 50", "EXPENSE", "1000", "1000", "10");
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void typeAmountPage_isOrderedByIndex() {
+        String plan = explain("SELECT * FROM transactions WHERE type = ?" +
+                " ORDER BY amount DESC, id DESC LIMIT 50", "INCOME");
+        assertTrue(plan, plan.contains(DatabaseHelper.INDEX_TRANSACTIONS_TYPE_AMOUNT));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void categoryPage_isOrderedByIndex() {
+        String plan = explain("SELECT * FROM transactions WHERE category_id = ?" +
+                " ORDER BY timestamp DESC, id DESC LIMIT 50", "3");
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void multiCriteriaDatePage_walksTimestampIndex() {
+        // As queryPage() compiles a filter with several categories and an amount range
+        String plan = explain("SELECT * FROM transactions WHERE +category_id IN (?, ?)" +
+                " AND +amount >= ? AND +amount <= ? AND timestamp <= ? AND (timestamp < ? OR id < ?)" +
+                " ORDER BY timestamp DESC, id DESC LIMIT 50", "3", "4", "100", "50000", "1000", "1000", "10");
+        assertTrue(plan, plan.contains(DatabaseHelper.INDEX_TRANSACTIONS_TIMESTAMP));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    private String explain(String sql, String... args) {
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(detail)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.pocketplan;
+
+import android.os.Debug;
+import android.util.Log;
+
+import java.util.Locale;
+
+/**
+ * Wall time and objects allocated between start() and stop(), on the
+ * calling thread. Shared by the benchmark tests, which log the result with
+ * log() and assert on getNanos() and getAllocations().
+ */
+@SuppressWarnings("deprecation") // Debug alloc counting is still the simplest per-thread counter
+final class Measurement {
+
+    private long startNanos;
+    private long nanos;
+    private long allocations;
+
+    private Measurement() {
+    }
+
+    static Measurement start() {
+        Measurement measurement = new Measurement();
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        measurement.startNanos = System.nanoTime();
+        return measurement;
+    }
+
+    /** Stop counting; call on the thread that called start(). */
+    Measurement stop() {
+        nanos = System.nanoTime() - startNanos;
+        Debug.stopAllocCounting();
+        allocations = Debug.getThreadAllocCount();
+        return this;
+    }
+
+    long getNanos() { return nanos; }
+    long getAllocations() { return allocations; }
+
+    double getAllocationsPer(int operations) {
+        return (double) allocations / operations;
+    }
+
+    /** Logs e.g. "HashMap merge: 18 ns/record, 2.00 allocations/record". */
+    void log(String tag, String label, int operations, String unit) {
+        Log.i(tag, String.format(Locale.US, "%s: %d ns/%s, %.2f allocations/%s",
+                label, nanos / operations, unit, getAllocationsPer(operations), unit));
+    }
+}
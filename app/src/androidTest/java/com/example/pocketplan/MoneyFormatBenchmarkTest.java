@@ -0,0 +1,65 @@
+package com.example.pocketplan;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.pocketplan.utils.MoneyFormatter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares MoneyFormatter.appendTo() with the String.format("₹%.2f") calls it
+ * replaced: time and allocations per amount, logged as "MoneyBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class MoneyFormatBenchmarkTest {
+
+    private static final String TAG = "MoneyBenchmark";
+    private static final int WARMUP = 10_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    public void moneyFormatter_vsStringFormat() {
+        MoneyFormatter formatter = MoneyFormatter.getInstance();
+        StringBuilder sb = new StringBuilder(32);
+        Locale locale = Locale.getDefault();
+        int sink = 0; // keeps the work from being optimised away
+
+        for (int i = 0; i < WARMUP; i++) {
+            sink += String.format(locale, "₹%.2f", amount(i) / 100.0).length();
+            sb.setLength(0);
+            sink += formatter.appendTo(sb, amount(i)).length();
+        }
+
+        Measurement stringFormat = Measurement.start();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += String.format(locale, "₹%.2f", amount(i) / 100.0).length();
+        }
+        stringFormat.stop();
+
+        Measurement appendTo = Measurement.start();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sb.setLength(0);
+            sink += formatter.appendTo(sb, amount(i)).length();
+        }
+        appendTo.stop();
+
+        stringFormat.log(TAG, "String.format", ITERATIONS, "op");
+        appendTo.log(TAG, "MoneyFormatter.appendTo", ITERATIONS, "op");
+        Log.i(TAG, "(sink " + sink + ")");
+
+        // Timings are only logged; they vary too much between devices to assert on
+        assertEquals("appendTo should not allocate", 0, appendTo.getAllocations());
+    }
+
+    // Spread from paise to crores so every grouping width is exercised
+    private static long amount(int i) {
+        return (i * 7_919L) % 10_000_000_000L;
+    }
+}
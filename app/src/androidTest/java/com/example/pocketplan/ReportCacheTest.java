@@ -0,0 +1,102 @@
+package com.example.pocketplan;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pocketplan.models.ReportSnapshot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/**
+ * The ledger's change count and ReportCache: a snapshot is reused from memory
+ * or from its file while nothing is written, and re-read after a write.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ReportCacheTest {
+
+    private Context context;
+    private DatabaseHelper helper;
+    private int categoryId;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        new File(context.getCacheDir(), "report_snapshot").delete();
+        helper = new DatabaseHelper(context, null);
+        categoryId = (int) helper.addCategory("Food & Dining");
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        new File(context.getCacheDir(), "report_snapshot").delete();
+    }
+
+    @Test
+    public void changeCount_followsEveryWrite() {
+        long start = helper.getChangeCount();
+        long id = helper.addTransaction("Lunch", categoryId, 25_000, null, "EXPENSE", 1_000);
+        helper.setSalary(5_000_000);
+        helper.deleteTransaction((int) id);
+        assertEquals(start + 3, helper.getChangeCount());
+
+        helper.repairBalanceLedger();
+        assertEquals(start + 4, helper.getChangeCount());
+    }
+
+    @Test
+    public void snapshot_hasReportFigures() {
+        long now = System.currentTimeMillis();
+        helper.addTransaction("Lunch", categoryId, 25_000, null, "EXPENSE", now);
+        helper.addTransaction("Refund", categoryId, 5_000, null, "INCOME", now);
+
+        ReportSnapshot report = helper.getReportSnapshot(now);
+
+        assertEquals(25_000, report.getBalance().getTotalExpense());
+        assertEquals(25_000, report.getCategoryExpense(categoryId));
+        assertEquals(25_000, report.getMonthlyExpense()[ReportSnapshot.MONTHS - 1]);
+        long daily = 0;
+        for (long amount : report.getDailyExpense()) daily += amount;
+        assertEquals(25_000, daily);
+        assertTrue(report.isCurrent(now));
+    }
+
+    @Test
+    public void cache_reusedUntilWrite() {
+        helper.addTransaction("Lunch", categoryId, 25_000, null, "EXPENSE", System.currentTimeMillis());
+        ReportCache cache = new ReportCache(context, helper);
+
+        ReportSnapshot first = cache.get();
+        assertSame(first, cache.peek());
+        assertSame(first, cache.get());
+
+        helper.addTransaction("Dinner", categoryId, 40_000, null, "EXPENSE", System.currentTimeMillis());
+        assertNull(cache.peek());
+        assertEquals(65_000, cache.get().getBalance().getTotalExpense());
+    }
+
+    @Test
+    public void file_servesNextProcess_whileUnchanged() {
+        helper.addTransaction("Lunch", categoryId, 25_000, null, "EXPENSE", System.currentTimeMillis());
+        ReportSnapshot written = new ReportCache(context, helper).get();
+
+        // A new cache stands in for a restarted process
+        ReportSnapshot read = new ReportCache(context, helper).get();
+        assertNotSame(written, read);
+        assertEquals(written.getChangeCount(), read.getChangeCount());
+        assertEquals(25_000, read.getBalance().getTotalExpense());
+
+        helper.setSalary(1_000_000);
+        ReportSnapshot reread = new ReportCache(context, helper).get();
+        assertEquals(1_000_000, reread.getBalance().getSalary());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.pocketplan;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pocketplan.models.Transaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * The rollup tables stay consistent when the device's time zone changes
+ * between a transaction's insert and its delete.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RollupTimeZoneTest {
+
+    // 5 March 2024, 20:00 UTC: 6 March in Kolkata, still 5 March in Los Angeles
+    private static final long TIMESTAMP = 1_709_668_800_000L;
+
+    private TimeZone originalZone;
+    private DatabaseHelper helper;
+    private int categoryId;
+
+    @Before
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        helper = new DatabaseHelper(context, null);
+        categoryId = (int) helper.addCategory("Food & Dining");
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+        helper.close();
+    }
+
+    @Test
+    public void deleteAfterZoneChange_removesTheInsertedKeys() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+        long kolkata = helper.addTransaction("Dinner", categoryId, 40_000, null, "EXPENSE", TIMESTAMP);
+
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+        helper.addTransaction("Lunch", categoryId, 25_000, null, "EXPENSE", TIMESTAMP);
+        assertEquals("20240306=40000,20240305=25000", rollup("daily_totals", "day"));
+
+        helper.deleteTransaction((int) kolkata);
+
+        // Only the Kolkata row's day is taken out; the Los Angeles row keeps its total
+        assertEquals("20240305=25000", rollup("daily_totals", "day"));
+        assertEquals("202403=25000", rollup("monthly_totals", "month"));
+    }
+
+    @Test
+    public void batchInsert_storesTheInsertZonesDay() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+        helper.addTransactions(Collections.singletonList(
+                new Transaction(0, "Dinner", categoryId, 40_000, null, "EXPENSE", TIMESTAMP)));
+        assertEquals("20240306=40000", rollup("daily_totals", "day"));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+        helper.clearAllTransactions();
+
+        assertEquals("", rollup("daily_totals", "day"));
+        assertEquals("", rollup("monthly_totals", "month"));
+    }
+
+    // "key=sum" for every row, newest key first
+    private String rollup(String table, String keyColumn) {
+        StringBuilder rows = new StringBuilder();
+        try (Cursor cursor = helper.getReadableDatabase().rawQuery(
+                "SELECT " + keyColumn + ", SUM(sum) FROM " + table +
+                        " GROUP BY 1 ORDER BY 1 DESC", null)) {
+            while (cursor.moveToNext()) {
+                if (rows.length() > 0) rows.append(',');
+                rows.append(cursor.getLong(0)).append('=').append(cursor.getLong(1));
+            }
+        }
+        return rows.toString();
+    }
+}
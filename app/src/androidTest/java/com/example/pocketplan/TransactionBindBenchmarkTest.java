@@ -0,0 +1,98 @@
+package com.example.pocketplan;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pocketplan.adapters.TransactionAdapter;
+import com.example.pocketplan.models.Transaction;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Times TransactionAdapter's bind path on the main thread, in both list and
+ * compact (column) mode, and counts the objects it allocates per row once
+ * warmed up, logged as "BindBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransactionBindBenchmarkTest {
+
+    private static final String TAG = "BindBenchmark";
+    private static final int ROWS = 1_000;
+    private static final int WARMUP_BINDS = 5_000;
+    private static final int MEASURED_BINDS = 20_000;
+
+    private Instrumentation instrumentation;
+    private Context context;
+
+    @Before
+    public void setUp() {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        context = new ContextThemeWrapper(instrumentation.getTargetContext(), R.style.Theme_PocketPlan);
+        // Bind reads categories from memory; load them here, off the main thread
+        CategoryRegistry.getInstance(context);
+    }
+
+    @Test
+    public void bind_timeAndAllocationsPerRow() {
+        measureBinds("bind", false);
+    }
+
+    @Test
+    public void compactBind_timeAndAllocationsPerRow() {
+        measureBinds("compact bind", true);
+    }
+
+    private void measureBinds(String label, boolean compact) {
+        List<Transaction> rows = generateRows();
+        Measurement[] result = new Measurement[1];
+
+        instrumentation.runOnMainSync(() -> {
+            TransactionAdapter adapter = new TransactionAdapter(context, rows, null, compact);
+            FrameLayout parent = new FrameLayout(context);
+            TransactionAdapter.TransactionViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+
+            for (int i = 0; i < WARMUP_BINDS; i++) {
+                adapter.onBindViewHolder(holder, i % ROWS);
+            }
+
+            // Counted on the main thread, where the binds run
+            Measurement binds = Measurement.start();
+            for (int i = 0; i < MEASURED_BINDS; i++) {
+                adapter.onBindViewHolder(holder, i % ROWS);
+            }
+            result[0] = binds.stop();
+        });
+
+        result[0].log(TAG, label, MEASURED_BINDS, "row");
+        assertEquals(label + " should not allocate once warmed up", 0, result[0].getAllocations());
+    }
+
+    // Spread over the last two weeks so every "Today/Yesterday/weekday/date" branch is hit
+    private List<Transaction> generateRows() {
+        List<Transaction> rows = new ArrayList<>(ROWS);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < ROWS; i++) {
+            boolean income = i % 10 == 0;
+            rows.add(new Transaction(i + 1,
+                    "Row " + i,
+                    (i % 10) + 1,
+                    (i % 500) * 100L + 50,
+                    null,
+                    income ? "INCOME" : "EXPENSE",
+                    now - i * 20 * 60_000L));
+        }
+        return rows;
+    }
+}
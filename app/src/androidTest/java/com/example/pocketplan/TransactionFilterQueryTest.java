@@ -0,0 +1,160 @@
+package com.example.pocketplan;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pocketplan.models.SavedFilter;
+import com.example.pocketplan.models.Transaction;
+import com.example.pocketplan.models.TransactionFilter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Multi-criteria filters: pages agree with TransactionFilter.matches() in
+ * every sort, saved filters round-trip, and a selective filter's first page
+ * stays fast on a large ledger. Timings are written to logcat under the
+ * "FilterBenchmark" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransactionFilterQueryTest {
+
+    private static final String TAG = "FilterBenchmark";
+    private static final int LARGE_ROWS = 200_000;
+
+    private DatabaseHelper helper;
+    private int food, travel, bills;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        helper = new DatabaseHelper(context, null);
+        food = (int) helper.addCategory("Food & Dining");
+        travel = (int) helper.addCategory("Transportation");
+        bills = (int) helper.addCategory("Bills & Utilities");
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+    }
+
+    @Test
+    public void pages_returnExactlyTheMatchingRows_inEverySort() {
+        List<Transaction> rows = new ArrayList<>();
+        int[] categories = {food, travel, bills};
+        for (int i = 0; i < 300; i++) {
+            rows.add(new Transaction(0, "Row " + i, categories[i % 3], (i * 37 % 100) * 100L,
+                    null, i % 5 == 0 ? "INCOME" : "EXPENSE", i * 1_000L));
+        }
+        helper.addTransactions(rows);
+
+        TransactionFilter base = TransactionFilter.ALL.withType("EXPENSE")
+                .withCategories(food, bills)
+                .withAmountRange(2_000, 7_000)
+                .withDateRange(50_000, 250_000);
+        int expected = 0;
+        for (Transaction row : rows) {
+            if (base.matches(row)) expected++;
+        }
+        assertTrue(expected > 0);
+
+        for (TransactionFilter.Sort sort : TransactionFilter.Sort.values()) {
+            TransactionFilter filter = base.withSort(sort);
+            List<Transaction> all = readAllPages(filter, 7);
+            assertEquals(sort.name(), expected, all.size());
+            for (int i = 0; i < all.size(); i++) {
+                assertTrue(sort.name(), filter.matches(all.get(i)));
+                if (i > 0) {
+                    assertTrue(sort.name(), sort.comparator().compare(all.get(i - 1), all.get(i)) < 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void page_withText_keepsOnlyIndexedMatches() {
+        helper.addTransaction("Coffee", food, 5_000, null, "EXPENSE", 1_000);
+        helper.addTransaction("Tea", food, 5_000, "coffee was sold out", "EXPENSE", 2_000);
+        helper.addTransaction("Coffee", travel, 5_000, null, "EXPENSE", 3_000);
+
+        TransactionFilter filter = TransactionFilter.ALL.withCategories(food).withText("cof");
+        List<Transaction> page = helper.getTransactionsPage(filter, null, 10);
+
+        assertEquals(2, page.size());
+        assertEquals("Tea", page.get(0).getTitle());
+    }
+
+    @Test
+    public void savedFilter_roundTrips() {
+        TransactionFilter filter = TransactionFilter.ALL.withType("EXPENSE")
+                .withCategories(travel, food)
+                .withAmountRange(100, 90_000)
+                .withDateRange(1_000, 2_000)
+                .withText("fuel")
+                .withSort(TransactionFilter.Sort.AMOUNT_ASC);
+
+        assertTrue(helper.saveFilter("Commute", filter));
+        assertTrue(helper.saveFilter("Everything", TransactionFilter.ALL));
+
+        List<SavedFilter> saved = helper.getSavedFilters();
+        assertEquals(2, saved.size());
+        SavedFilter commute = saved.get(0).getName().equals("Commute") ? saved.get(0) : saved.get(1);
+        assertEquals(filter, commute.getFilter());
+
+        // Saving under the same name replaces it
+        assertTrue(helper.saveFilter("Commute", TransactionFilter.ALL.withType("INCOME")));
+        assertEquals(2, helper.getSavedFilters().size());
+
+        assertTrue(helper.deleteSavedFilter("Commute"));
+        assertEquals(1, helper.getSavedFilters().size());
+        assertEquals(TransactionFilter.ALL, helper.getSavedFilters().get(0).getFilter());
+    }
+
+    @Test
+    public void firstPage_largeLedger() {
+        List<Transaction> rows = new ArrayList<>(LARGE_ROWS);
+        int[] categories = {food, travel, bills};
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < LARGE_ROWS; i++) {
+            rows.add(new Transaction(0, "Row " + i, categories[i % 3], (i % 500) * 100L + 50,
+                    null, "EXPENSE", now - i * 60_000L));
+        }
+        helper.addTransactions(rows);
+
+        TransactionFilter filter = TransactionFilter.ALL.withCategories(food, bills)
+                .withAmountRange(10_000, 20_000)
+                .withDateRange(now - 90 * 86_400_000L, now + 1);
+        for (TransactionFilter.Sort sort : TransactionFilter.Sort.values()) {
+            TransactionFilter sorted = filter.withSort(sort);
+            helper.getTransactionsPage(sorted, null, 50); // first query warms the page cache
+            long start = System.nanoTime();
+            List<Transaction> page = helper.getTransactionsPage(sorted, null, 50);
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            Log.i(TAG, sort + ": " + page.size() + " rows in " + ms + " ms over "
+                    + LARGE_ROWS + " transactions");
+            assertEquals(sort.name(), 50, page.size());
+        }
+    }
+
+    private List<Transaction> readAllPages(TransactionFilter filter, int pageSize) {
+        List<Transaction> all = new ArrayList<>();
+        Transaction last = null;
+        while (true) {
+            List<Transaction> page = helper.getTransactionsPage(filter, last, pageSize);
+            all.addAll(page);
+            if (page.size() < pageSize) return all;
+            last = page.get(page.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.pocketplan;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.pocketplan.models.Transaction;
+import com.example.pocketplan.models.TransactionFilter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Full-text search: the index follows inserts and deletes, results rank
+ * title matches first, pages follow on from the last row, and search stays
+ * within budget on a large ledger. Timings are written to logcat under the
+ * "SearchBenchmark" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransactionSearchTest {
+
+    private static final String TAG = "SearchBenchmark";
+    private static final int LARGE_ROWS = 200_000;
+    // Queries run off the main thread; each must finish within TransactionsActivity's
+    // 250 ms typing debounce, so search-as-you-type never queues queries behind each other
+    private static final long SEARCH_BUDGET_MS = 250;
+
+    private static final String[] TITLES = {
+            "Coffee", "Lunch", "Groceries", "Fuel", "Electricity bill",
+            "Movie tickets", "Pharmacy", "Taxi", "Rent", "Dinner with friends"
+    };
+
+    private DatabaseHelper helper;
+    private int categoryId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        helper = new DatabaseHelper(context, null);
+        categoryId = (int) helper.addCategory("Food & Dining");
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+    }
+
+    @Test
+    public void prefixQuery_dropsOperatorsAndPunctuation() {
+        assertEquals("coffee* sta*", DatabaseHelper.toPrefixQuery("  Coffee, \"sta", null));
+        assertEquals("title:or* title:near*", DatabaseHelper.toPrefixQuery("OR NEAR", "title"));
+        assertNull(DatabaseHelper.toPrefixQuery(" *-\" ", null));
+    }
+
+    @Test
+    public void search_ranksTitleMatchesFirst() {
+        long noteMatch = add("Lunch", "coffee with Sam", 3_000);
+        long titleMatch = add("Coffee at Starbucks", null, 1_000);
+        add("Groceries", "milk", 2_000);
+
+        List<Transaction> results = search("cof", 10);
+
+        assertEquals(2, results.size());
+        assertEquals(titleMatch, results.get(0).getId());
+        assertEquals(noteMatch, results.get(1).getId());
+    }
+
+    @Test
+    public void search_everyWordMustMatch() {
+        add("Coffee at Starbucks", null, 1_000);
+        add("Coffee beans", null, 2_000);
+
+        List<Transaction> results = search("coffee star", 10);
+
+        assertEquals(1, results.size());
+        assertEquals("Coffee at Starbucks", results.get(0).getTitle());
+    }
+
+    @Test
+    public void search_followsDeletes() {
+        long id = add("Coffee", null, 1_000);
+        assertEquals(1, search("cof", 10).size());
+
+        helper.deleteTransaction((int) id);
+
+        assertTrue(search("cof", 10).isEmpty());
+    }
+
+    @Test
+    public void search_appliesFilterAndPages() {
+        for (int i = 0; i < 5; i++) {
+            add("Coffee " + i, null, i);
+        }
+        helper.addTransaction("Coffee refund", categoryId, 100, null, "INCOME", 10);
+
+        TransactionFilter expenses = TransactionFilter.ALL.withType("EXPENSE");
+        List<Transaction> first = helper.searchTransactions("coffee", expenses, null, 3);
+        List<Transaction> second = helper.searchTransactions("coffee", expenses, first.get(2), 3);
+
+        assertEquals(3, first.size());
+        assertEquals(2, second.size());
+        assertEquals("Coffee 4", first.get(0).getTitle()); // newest first among title matches
+        assertEquals("Coffee 0", second.get(1).getTitle());
+    }
+
+    @Test
+    public void search_pagesAcrossTitleAndNoteMatches() {
+        long newestNote = add("Lunch", "coffee with Sam", 5_000);
+        long olderNote = add("Dinner", "coffee after", 500);
+        long newestTitle = add("Coffee", null, 2_000);
+        long olderTitle = add("Coffee beans", null, 1_000);
+
+        List<Transaction> first = search("cof", 2);
+        List<Transaction> second = helper.searchTransactions("cof", TransactionFilter.ALL, first.get(1), 2);
+        List<Transaction> third = helper.searchTransactions("cof", TransactionFilter.ALL, second.get(1), 2);
+
+        assertEquals(newestTitle, first.get(0).getId());
+        assertEquals(olderTitle, first.get(1).getId());
+        assertEquals(newestNote, second.get(0).getId());
+        assertEquals(olderNote, second.get(1).getId());
+        assertTrue(third.isEmpty());
+    }
+
+    @Test
+    public void search_largeLedger() {
+        List<Transaction> rows = new ArrayList<>(LARGE_ROWS);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < LARGE_ROWS; i++) {
+            rows.add(new Transaction(0, TITLES[i % TITLES.length] + " " + i, categoryId,
+                    (i % 500) * 100L + 50, i % 7 == 0 ? "paid by card" : null,
+                    "EXPENSE", now - i * 60_000L));
+        }
+        helper.addTransactions(rows);
+
+        for (String text : new String[]{"co", "din fri", "electricity", "card", "199999"}) {
+            search(text, 50); // first query warms the page cache
+            long start = System.nanoTime();
+            List<Transaction> results = search(text, 50);
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            Log.i(TAG, "\"" + text + "\": " + results.size() + " rows in " + ms + " ms over "
+                    + LARGE_ROWS + " transactions");
+            assertFalse(text, results.isEmpty());
+            assertTrue("\"" + text + "\" took " + ms + " ms", ms < SEARCH_BUDGET_MS);
+        }
+
+        // A deep page costs no more than the first: the key skips what was shown
+        List<Transaction> page = search("co", 50);
+        for (int i = 0; i < 100; i++) {
+            page = helper.searchTransactions("co", TransactionFilter.ALL, page.get(page.size() - 1), 50);
+        }
+        long start = System.nanoTime();
+        List<Transaction> deep = helper.searchTransactions("co", TransactionFilter.ALL, page.get(page.size() - 1), 50);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        Log.i(TAG, "\"co\" page 102: " + deep.size() + " rows in " + ms + " ms");
+        assertEquals(50, deep.size());
+        assertTrue("page 102 took " + ms + " ms", ms < SEARCH_BUDGET_MS);
+    }
+
+    private long add(String title, String note, long timestamp) {
+        return helper.addTransaction(title, categoryId, 1000, note, "EXPENSE", timestamp);
+    }
+
+    private List<Transaction> search(String text, int limit) {
+        return helper.searchTransactions(text, TransactionFilter.ALL, null, limit);
+    }
+}
@@ -1,8 +1,7 @@
 package com.example.pocketplan;
 
-import android.content.ContentValues;
 import android.content.Intent;
-import android.database.sqlite.SQLiteDatabase;
+import android.content.res.ColorStateList;
 import android.os.Bundle;
 import android.util.Log;
 import android.widget.ArrayAdapter;
@@ -10,16 +9,16 @@ import android.widget.AutoCompleteTextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 
-import com.example.pocketplan.notifications.BudgetNotificationChecker;
-import com.example.pocketplan.notifications.LowBalanceChecker;
+import com.example.pocketplan.models.Category;
+import com.example.pocketplan.utils.Money;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 public class AddTransactionActivity extends AppCompatActivity {
 
@@ -30,21 +29,7 @@ public class AddTransactionActivity extends AppCompatActivity {
     private TextInputLayout tilCategory;
     private MaterialButton btnSave;
 
-    DatabaseHelper databaseHelper;
-
-    private Map<String, Integer> categoryIcons;
-    private String[] categories = {
-            "Food & Dining",
-            "Transportation",
-            "Shopping",
-            "Entertainment",
-            "Bills & Utilities",
-            "Healthcare",
-            "Education",
-            "Travel",
-            "Groceries",
-            "Other"
-    };
+    private TransactionRepository repository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -52,9 +37,10 @@ public class AddTransactionActivity extends AppCompatActivity {
         setContentView(R.layout.activity_add_transaction);
 
         initializeViews();
-        databaseHelper = new DatabaseHelper(this);
-        setupCategoryIcons();
-        setupCategoryDropdown();
+        repository = TransactionRepository.getInstance(this);
+        repository.getCategories(registry -> {
+            if (registry != null) setupCategoryDropdown(registry.getExpenseCategories());
+        });
         setupListeners();
     }
 
@@ -67,22 +53,8 @@ public class AddTransactionActivity extends AppCompatActivity {
         btnSave = findViewById(R.id.btnSave);
     }
 
-    private void setupCategoryIcons() {
-        categoryIcons = new HashMap<>();
-        categoryIcons.put("Food & Dining", android.R.drawable.ic_menu_recent_history);
-        categoryIcons.put("Transportation", android.R.drawable.ic_menu_directions);
-        categoryIcons.put("Shopping", android.R.drawable.ic_menu_gallery);
-        categoryIcons.put("Entertainment", android.R.drawable.ic_media_play);
-        categoryIcons.put("Bills & Utilities", android.R.drawable.ic_menu_agenda);
-        categoryIcons.put("Healthcare", android.R.drawable.ic_menu_add);
-        categoryIcons.put("Education", android.R.drawable.ic_menu_info_details);
-        categoryIcons.put("Travel", android.R.drawable.ic_menu_compass);
-        categoryIcons.put("Groceries", android.R.drawable.ic_menu_today);
-        categoryIcons.put("Other", android.R.drawable.ic_dialog_info);
-    }
-
-    private void setupCategoryDropdown() {
-        ArrayAdapter<String> adapter = new ArrayAdapter<>(
+    private void setupCategoryDropdown(List<Category> categories) {
+        ArrayAdapter<Category> adapter = new ArrayAdapter<>(
                 this,
                 android.R.layout.simple_dropdown_item_1line,
                 categories
@@ -90,32 +62,16 @@ public class AddTransactionActivity extends AppCompatActivity {
         actvCategory.setAdapter(adapter);
 
         actvCategory.setOnItemClickListener((parent, view, position, id) -> {
-            String selectedCategory = categories[position];
+            // Position is within the filtered dropdown, so ask the adapter
+            Category selectedCategory = (Category) parent.getItemAtPosition(position);
             updateCategoryIcon(selectedCategory);
         });
     }
 
-    private void updateCategoryIcon(String category) {
-        Integer iconRes = categoryIcons.get(category);
-        if (iconRes != null) {
-            tilCategory.setStartIconDrawable(iconRes);
-
-            int iconColor;
-            switch (category) {
-                case "Food & Dining":       iconColor = 0xFFFF9800; break;
-                case "Transportation":      iconColor = 0xFF2196F3; break;
-                case "Shopping":            iconColor = 0xFFE91E63; break;
-                case "Entertainment":       iconColor = 0xFF9C27B0; break;
-                case "Bills & Utilities":   iconColor = 0xFFF44336; break;
-                case "Healthcare":          iconColor = 0xFF4CAF50; break;
-                case "Education":           iconColor = 0xFF3F51B5; break;
-                case "Travel":              iconColor = 0xFF00BCD4; break;
-                case "Groceries":           iconColor = 0xFF8BC34A; break;
-                default:                    iconColor = 0xFF607D8B; break;
-            }
-            tilCategory.setStartIconTintList(
-                    android.content.res.ColorStateList.valueOf(iconColor));
-        }
+    private void updateCategoryIcon(Category category) {
+        tilCategory.setStartIconDrawable(category.getIconRes());
+        tilCategory.setStartIconTintList(
+                ColorStateList.valueOf(ContextCompat.getColor(this, category.getTintRes())));
     }
 
     private void setupListeners() {
@@ -151,9 +107,9 @@ public class AddTransactionActivity extends AppCompatActivity {
             return;
         }
 
-        double amount;
+        long amount;
         try {
-            amount = Double.parseDouble(amountStr);
+            amount = Money.parseMinor(amountStr);
             if (amount <= 0) {
                 etAmount.setError("Amount must be greater than 0");
                 etAmount.requestFocus();
@@ -165,29 +121,18 @@ public class AddTransactionActivity extends AppCompatActivity {
             return;
         }
 
-        SQLiteDatabase db = null;
-        long result = -1;
-
-        try {
-            db = databaseHelper.getWritableDatabase();
-
-            ContentValues values = new ContentValues();
-            values.put(DatabaseHelper.COL_TITLE, title);
-            values.put(DatabaseHelper.COL_CATEGORY, category);
-            values.put(DatabaseHelper.COL_AMOUNT, amount);
-            values.put(DatabaseHelper.COL_NOTE, note);
-            values.put(DatabaseHelper.COL_TYPE, "EXPENSE"); // Always expense
-            values.put(DatabaseHelper.COL_TIMESTAMP, System.currentTimeMillis());
-
-            result = db.insert(DatabaseHelper.TABLE_TRANSACTIONS, null, values);
-
+        // Typed names that match no category become a new one
+        btnSave.setEnabled(false);
+        repository.addTransaction(title, category, amount, note,
+                "EXPENSE", // Always expense
+                System.currentTimeMillis(), result -> {
             if (result != -1) {
                 Log.d(TAG, "Expense saved successfully with ID: " + result);
                 Toast.makeText(this, "✓ Expense Saved Successfully", Toast.LENGTH_SHORT).show();
 
-                // Check budget and low balance notifications instantly
-                BudgetNotificationChecker.checkAllCategories(this);
-                LowBalanceChecker.check(this);
+                // Check budget and low balance notifications in the background
+                repository.checkBudgetAlerts();
+                repository.checkLowBalance();
 
                 Intent intent = new Intent();
                 intent.putExtra("success", true);
@@ -196,19 +141,8 @@ public class AddTransactionActivity extends AppCompatActivity {
             } else {
                 Log.e(TAG, "Failed to insert expense");
                 Toast.makeText(this, "❌ Failed to save expense", Toast.LENGTH_SHORT).show();
+                btnSave.setEnabled(true);
             }
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error saving expense: " + e.getMessage(), e);
-            Toast.makeText(this, "❌ Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-        }
-    }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (databaseHelper != null) {
-            databaseHelper.close();
-        }
+        });
     }
 }
\ No newline at end of file
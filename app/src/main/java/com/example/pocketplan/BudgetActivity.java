@@ -3,6 +3,7 @@ package com.example.pocketplan;
 import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.util.Log;
+import android.util.SparseLongArray;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -12,46 +13,61 @@ import androidx.appcompat.widget.Toolbar;
 
 import com.google.android.material.textfield.TextInputEditText;
 
+import com.example.pocketplan.models.Category;
 import com.example.pocketplan.notifications.BudgetNotificationChecker;
+import com.example.pocketplan.utils.Money;
+import com.example.pocketplan.utils.MoneyFormatter;
 
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.List;
 
 public class BudgetActivity extends AppCompatActivity {
 
     private static final String TAG = "BudgetActivity";
     private static final String PREFS_BUDGET = "BudgetPrefs";
 
-    private DatabaseHelper databaseHelper;
+    private TransactionRepository repository;
     private SharedPreferences budgetPrefs;
 
+    // Expense totals per category id, loaded once per refresh
+    private SparseLongArray spentByCategory = new SparseLongArray();
+
     // Summary TextViews
     private TextView tvTotalBudget, tvTotalSpent, tvTotalRemaining;
 
-    // Budget input fields
-    private TextInputEditText etBudgetFood, etBudgetTransport, etBudgetShopping,
-            etBudgetBills, etBudgetEntertainment, etBudgetOther;
+    // One row per budget category from CategoryRegistry that has views in the layout
+    private final List<BudgetRow> rows = new ArrayList<>();
 
-    // Spent labels
-    private TextView tvSpentFood, tvSpentTransport, tvSpentShopping,
-            tvSpentBills, tvSpentEntertainment, tvSpentOther;
+    private static class BudgetRow {
+        final Category category;
+        final TextInputEditText etBudget;
+        final TextView tvSpent;
+        final ProgressBar progress;
 
-    // Progress bars
-    private ProgressBar progressFood, progressTransport, progressShopping,
-            progressBills, progressEntertainment, progressOther;
+        BudgetRow(Category category, TextInputEditText etBudget, TextView tvSpent, ProgressBar progress) {
+            this.category = category;
+            this.etBudget = etBudget;
+            this.tvSpent = tvSpent;
+            this.progress = progress;
+        }
+    }
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_budget);
 
-        databaseHelper = new DatabaseHelper(this);
+        repository = TransactionRepository.getInstance(this);
         budgetPrefs = getSharedPreferences(PREFS_BUDGET, MODE_PRIVATE);
 
         setupToolbar();
         initializeViews();
-        loadSavedBudgets();
-        loadSpentAmounts();
-        updateSummary();
+        repository.getCategories(registry -> {
+            if (registry == null) return;
+            initializeRows(registry);
+            loadSavedBudgets();
+            loadSpentAmounts();
+        });
 
         findViewById(R.id.btnSaveBudgets).setOnClickListener(v -> saveBudgets());
     }
@@ -69,77 +85,84 @@ public class BudgetActivity extends AppCompatActivity {
         tvTotalBudget    = findViewById(R.id.tvTotalBudget);
         tvTotalSpent     = findViewById(R.id.tvTotalSpent);
         tvTotalRemaining = findViewById(R.id.tvTotalRemaining);
+    }
 
-        etBudgetFood          = findViewById(R.id.etBudgetFood);
-        etBudgetTransport     = findViewById(R.id.etBudgetTransport);
-        etBudgetShopping      = findViewById(R.id.etBudgetShopping);
-        etBudgetBills         = findViewById(R.id.etBudgetBills);
-        etBudgetEntertainment = findViewById(R.id.etBudgetEntertainment);
-        etBudgetOther         = findViewById(R.id.etBudgetOther);
-
-        tvSpentFood          = findViewById(R.id.tvSpentFood);
-        tvSpentTransport     = findViewById(R.id.tvSpentTransport);
-        tvSpentShopping      = findViewById(R.id.tvSpentShopping);
-        tvSpentBills         = findViewById(R.id.tvSpentBills);
-        tvSpentEntertainment = findViewById(R.id.tvSpentEntertainment);
-        tvSpentOther         = findViewById(R.id.tvSpentOther);
-
-        progressFood          = findViewById(R.id.progressFood);
-        progressTransport     = findViewById(R.id.progressTransport);
-        progressShopping      = findViewById(R.id.progressShopping);
-        progressBills         = findViewById(R.id.progressBills);
-        progressEntertainment = findViewById(R.id.progressEntertainment);
-        progressOther         = findViewById(R.id.progressOther);
+    private void initializeRows(CategoryRegistry registry) {
+        for (Category category : registry.getBudgetCategories()) {
+            switch (category.getName()) {
+                case CategoryRegistry.FOOD:
+                    addRow(category, R.id.etBudgetFood, R.id.tvSpentFood, R.id.progressFood);
+                    break;
+                case CategoryRegistry.TRANSPORT:
+                    addRow(category, R.id.etBudgetTransport, R.id.tvSpentTransport, R.id.progressTransport);
+                    break;
+                case CategoryRegistry.SHOPPING:
+                    addRow(category, R.id.etBudgetShopping, R.id.tvSpentShopping, R.id.progressShopping);
+                    break;
+                case CategoryRegistry.BILLS:
+                    addRow(category, R.id.etBudgetBills, R.id.tvSpentBills, R.id.progressBills);
+                    break;
+                case CategoryRegistry.ENTERTAINMENT:
+                    addRow(category, R.id.etBudgetEntertainment, R.id.tvSpentEntertainment, R.id.progressEntertainment);
+                    break;
+                case CategoryRegistry.OTHER:
+                    addRow(category, R.id.etBudgetOther, R.id.tvSpentOther, R.id.progressOther);
+                    break;
+                default:
+                    Log.w(TAG, "No budget row in layout for " + category.getName());
+            }
+        }
+    }
+
+    private void addRow(Category category, int budgetFieldId, int spentLabelId, int progressId) {
+        rows.add(new BudgetRow(category,
+                findViewById(budgetFieldId),
+                findViewById(spentLabelId),
+                findViewById(progressId)));
+    }
+
+    private float budget(BudgetRow row) {
+        return budgetPrefs.getFloat(row.category.getBudgetKey(), 0);
     }
 
     private void loadSavedBudgets() {
-        setFieldText(etBudgetFood,          budgetPrefs.getFloat("budget_food", 0));
-        setFieldText(etBudgetTransport,     budgetPrefs.getFloat("budget_transport", 0));
-        setFieldText(etBudgetShopping,      budgetPrefs.getFloat("budget_shopping", 0));
-        setFieldText(etBudgetBills,         budgetPrefs.getFloat("budget_bills", 0));
-        setFieldText(etBudgetEntertainment, budgetPrefs.getFloat("budget_entertainment", 0));
-        setFieldText(etBudgetOther,         budgetPrefs.getFloat("budget_other", 0));
+        for (BudgetRow row : rows) {
+            setFieldText(row.etBudget, budget(row));
+        }
     }
 
     private void setFieldText(TextInputEditText field, float value) {
         if (value > 0) {
-            field.setText(String.format(Locale.getDefault(), "%.0f", value));
+            field.setText(String.valueOf(Math.round(value)));
         }
     }
 
     private void loadSpentAmounts() {
-        try {
-            double food          = databaseHelper.getExpenseByCategory("Food & Dining");
-            double transport     = databaseHelper.getExpenseByCategory("Transportation");
-            double shopping      = databaseHelper.getExpenseByCategory("Shopping");
-            double bills         = databaseHelper.getExpenseByCategory("Bills & Utilities");
-            double entertainment = databaseHelper.getExpenseByCategory("Entertainment");
-            double other         = databaseHelper.getExpenseByCategory("Other");
-
-            updateCategoryUI(tvSpentFood,          progressFood,          food,
-                    budgetPrefs.getFloat("budget_food", 0));
-            updateCategoryUI(tvSpentTransport,     progressTransport,     transport,
-                    budgetPrefs.getFloat("budget_transport", 0));
-            updateCategoryUI(tvSpentShopping,      progressShopping,      shopping,
-                    budgetPrefs.getFloat("budget_shopping", 0));
-            updateCategoryUI(tvSpentBills,         progressBills,         bills,
-                    budgetPrefs.getFloat("budget_bills", 0));
-            updateCategoryUI(tvSpentEntertainment, progressEntertainment, entertainment,
-                    budgetPrefs.getFloat("budget_entertainment", 0));
-            updateCategoryUI(tvSpentOther,         progressOther,         other,
-                    budgetPrefs.getFloat("budget_other", 0));
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading spent amounts: " + e.getMessage(), e);
-        }
+        repository.getExpenseTotalsByCategory(0, Long.MAX_VALUE, totals -> {
+            if (totals == null) return;
+            spentByCategory = totals;
+
+            for (BudgetRow row : rows) {
+                updateCategoryUI(row.tvSpent, row.progress, spent(row), budget(row));
+            }
+            updateSummary();
+        });
     }
 
-    private void updateCategoryUI(TextView tvSpent, ProgressBar progress,
-                                  double spent, float budget) {
-        tvSpent.setText(String.format(Locale.getDefault(), "Spent: ₹%.0f", spent));
+    /** Paise spent in a row's category. */
+    private long spent(BudgetRow row) {
+        return spentByCategory.get(row.category.getId());
+    }
 
-        if (budget > 0) {
-            int percent = (int) Math.min((spent / budget) * 100, 100);
+    private void updateCategoryUI(TextView tvSpent, ProgressBar progress,
+                                  long spent, float budget) {
+        tvSpent.setText(MoneyFormatter.getInstance()
+                .appendWholeTo(new StringBuilder("Spent: "), spent));
+
+        // Budgets are kept in rupees, totals in paise
+        long budgetPaise = Money.toMinor(budget);
+        if (budgetPaise > 0) {
+            int percent = (int) Math.min(spent * 100 / budgetPaise, 100);
             progress.setProgress(percent);
         } else {
             progress.setProgress(0);
@@ -147,43 +170,28 @@ public class BudgetActivity extends AppCompatActivity {
     }
 
     private void updateSummary() {
-        float totalBudget =
-                budgetPrefs.getFloat("budget_food", 0) +
-                        budgetPrefs.getFloat("budget_transport", 0) +
-                        budgetPrefs.getFloat("budget_shopping", 0) +
-                        budgetPrefs.getFloat("budget_bills", 0) +
-                        budgetPrefs.getFloat("budget_entertainment", 0) +
-                        budgetPrefs.getFloat("budget_other", 0);
-
-        double totalSpent = 0;
-        try {
-            totalSpent =
-                    databaseHelper.getExpenseByCategory("Food & Dining") +
-                            databaseHelper.getExpenseByCategory("Transportation") +
-                            databaseHelper.getExpenseByCategory("Shopping") +
-                            databaseHelper.getExpenseByCategory("Bills & Utilities") +
-                            databaseHelper.getExpenseByCategory("Entertainment") +
-                            databaseHelper.getExpenseByCategory("Other");
-        } catch (Exception e) {
-            Log.e(TAG, "Error computing total spent: " + e.getMessage(), e);
+        long totalBudget = 0;
+        // Reuses the totals fetched by loadSpentAmounts()
+        long totalSpent = 0;
+        for (BudgetRow row : rows) {
+            totalBudget += Money.toMinor(budget(row));
+            totalSpent += spent(row);
         }
 
-        double remaining = totalBudget - totalSpent;
+        long remaining = totalBudget - totalSpent;
 
-        tvTotalBudget.setText(String.format(Locale.getDefault(), "₹%.0f", (double) totalBudget));
-        tvTotalSpent.setText(String.format(Locale.getDefault(), "₹%.0f", totalSpent));
-        tvTotalRemaining.setText(String.format(Locale.getDefault(), "₹%.0f", remaining));
+        MoneyFormatter money = MoneyFormatter.getInstance();
+        tvTotalBudget.setText(money.formatWhole(totalBudget));
+        tvTotalSpent.setText(money.formatWhole(totalSpent));
+        tvTotalRemaining.setText(money.formatWhole(remaining));
     }
 
     private void saveBudgets() {
         SharedPreferences.Editor editor = budgetPrefs.edit();
 
-        editor.putFloat("budget_food",          parseField(etBudgetFood));
-        editor.putFloat("budget_transport",     parseField(etBudgetTransport));
-        editor.putFloat("budget_shopping",      parseField(etBudgetShopping));
-        editor.putFloat("budget_bills",         parseField(etBudgetBills));
-        editor.putFloat("budget_entertainment", parseField(etBudgetEntertainment));
-        editor.putFloat("budget_other",         parseField(etBudgetOther));
+        for (BudgetRow row : rows) {
+            editor.putFloat(row.category.getBudgetKey(), parseField(row.etBudget));
+        }
 
         editor.apply();
 
@@ -191,11 +199,10 @@ public class BudgetActivity extends AppCompatActivity {
 
         // Reset alerts so they can re-trigger if spending still exceeds new budgets
         BudgetNotificationChecker.resetAlerts(this);
-        BudgetNotificationChecker.checkAllCategories(this);
+        repository.checkBudgetAlerts();
 
         // Refresh UI after save
         loadSpentAmounts();
-        updateSummary();
     }
 
     private float parseField(TextInputEditText field) {
@@ -206,10 +213,4 @@ public class BudgetActivity extends AppCompatActivity {
             return 0f;
         }
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (databaseHelper != null) databaseHelper.close();
-    }
 }
\ No newline at end of file
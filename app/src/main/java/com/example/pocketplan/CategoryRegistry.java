@@ -0,0 +1,200 @@
+package com.example.pocketplan;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.pocketplan.models.Category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory copy of the categories table, loaded once per process. Resolves a
+ * category id to its name, icon, colors and budget key with an array lookup,
+ * and is the single list of categories offered by the screens.
+ */
+public final class CategoryRegistry {
+
+    private static final String TAG = "CategoryRegistry";
+
+    // Built-in categories that screens refer to by name
+    public static final String FOOD          = "Food & Dining";
+    public static final String TRANSPORT     = "Transportation";
+    public static final String SHOPPING      = "Shopping";
+    public static final String ENTERTAINMENT = "Entertainment";
+    public static final String BILLS         = "Bills & Utilities";
+    public static final String HEALTHCARE    = "Healthcare";
+    public static final String EDUCATION     = "Education";
+    public static final String TRAVEL        = "Travel";
+    public static final String GROCERIES     = "Groceries";
+    public static final String OTHER         = "Other";
+    public static final String INCOME        = "Income";
+
+    // Read without a lock: TransactionAdapter calls getInstance() for every row it binds
+    private static volatile CategoryRegistry instance;
+
+    private final Category[] byId; // index is the category id; gaps are null
+    private final Map<String, Category> byName;
+    private final List<Category> all;
+    private final Category unknown = new Category(-1, OTHER);
+
+    public static CategoryRegistry getInstance(Context context) {
+        CategoryRegistry registry = instance;
+        if (registry == null) {
+            registry = publish(load(context));
+        }
+        return registry;
+    }
+
+    /**
+     * Id of the category with this name, adding it to the database (and
+     * reloading the registry) if it is new.
+     * @return Category id, or -1 on error
+     */
+    public static int getOrAdd(Context context, String name) {
+        Category existing = getInstance(context).find(name);
+        if (existing != null) {
+            return existing.getId();
+        }
+        // Insert and reload hold no lock, so getInstance() never waits on the disk
+        long id = DatabaseHelper.getInstance(context).addCategory(name);
+        publish(load(context));
+        Log.d(TAG, "Added category " + name + " with ID " + id);
+        return (int) id;
+    }
+
+    private static CategoryRegistry load(Context context) {
+        return new CategoryRegistry(DatabaseHelper.getInstance(context).getCategories());
+    }
+
+    // Categories are only ever added, so of two loads the larger is the newer
+    private static synchronized CategoryRegistry publish(CategoryRegistry loaded) {
+        if (instance == null || loaded.all.size() >= instance.all.size()) {
+            instance = loaded;
+        }
+        return instance;
+    }
+
+    private CategoryRegistry(List<Category> rows) {
+        int maxId = 0;
+        for (Category row : rows) {
+            maxId = Math.max(maxId, row.getId());
+        }
+        byId = new Category[maxId + 1];
+        byName = new HashMap<>();
+        List<Category> styled = new ArrayList<>(rows.size());
+        for (Category row : rows) {
+            Category category = style(row.getId(), row.getName());
+            byId[category.getId()] = category;
+            byName.put(category.getName(), category);
+            styled.add(category);
+        }
+        all = Collections.unmodifiableList(styled);
+    }
+
+    /** Category for an id; unknown ids get a generic "Other" look. */
+    public Category get(int id) {
+        Category category = id >= 0 && id < byId.length ? byId[id] : null;
+        return category != null ? category : unknown;
+    }
+
+    /** Category with exactly this name, or null. */
+    public Category find(String name) {
+        return byName.get(name);
+    }
+
+    /** Id of the category with exactly this name, or -1. */
+    public int idOf(String name) {
+        Category category = byName.get(name);
+        return category != null ? category.getId() : -1;
+    }
+
+    /** All categories in id order. */
+    public List<Category> getAll() {
+        return all;
+    }
+
+    /** Categories offered for expenses, with the catch-all "Other" last. */
+    public List<Category> getExpenseCategories() {
+        List<Category> result = new ArrayList<>();
+        for (Category category : all) {
+            if (category.isExpense() && !OTHER.equals(category.getName())) result.add(category);
+        }
+        return withOtherLast(result);
+    }
+
+    /** Categories offered for income, with the catch-all "Other" last. */
+    public List<Category> getIncomeCategories() {
+        List<Category> result = new ArrayList<>();
+        for (Category category : all) {
+            if (category.isIncome() && !OTHER.equals(category.getName())) result.add(category);
+        }
+        return withOtherLast(result);
+    }
+
+    private List<Category> withOtherLast(List<Category> result) {
+        Category other = byName.get(OTHER);
+        if (other != null) result.add(other);
+        return result;
+    }
+
+    /** Categories the user can set a budget for. */
+    public List<Category> getBudgetCategories() {
+        List<Category> result = new ArrayList<>();
+        for (Category category : all) {
+            if (category.getBudgetKey() != null) result.add(category);
+        }
+        return result;
+    }
+
+    // Look of the built-in categories; user-added ones get the default look
+    private static Category style(int id, String name) {
+        switch (name) {
+            case FOOD:
+                return new Category(id, name, android.R.drawable.ic_menu_recent_history,
+                        R.color.category_food, R.color.icon_food, "budget_food", true, false);
+            case TRANSPORT:
+                return new Category(id, name, android.R.drawable.ic_menu_directions,
+                        R.color.category_transport, R.color.icon_transport, "budget_transport", true, false);
+            case SHOPPING:
+                return new Category(id, name, android.R.drawable.ic_menu_gallery,
+                        R.color.category_shopping, R.color.icon_shopping, "budget_shopping", true, false);
+            case ENTERTAINMENT:
+                return new Category(id, name, android.R.drawable.ic_media_play,
+                        R.color.category_entertainment, R.color.icon_entertainment, "budget_entertainment", true, false);
+            case BILLS:
+                return new Category(id, name, android.R.drawable.ic_menu_agenda,
+                        R.color.category_bills, R.color.icon_bills, "budget_bills", true, false);
+            case HEALTHCARE:
+                return new Category(id, name, android.R.drawable.ic_menu_add,
+                        R.color.category_health, R.color.icon_health, null, true, false);
+            case EDUCATION:
+                return new Category(id, name, android.R.drawable.ic_menu_info_details,
+                        R.color.category_education, R.color.icon_education, null, true, false);
+            case TRAVEL:
+                return new Category(id, name, android.R.drawable.ic_menu_compass,
+                        R.color.category_travel, R.color.icon_travel, null, true, false);
+            case GROCERIES:
+                return new Category(id, name, android.R.drawable.ic_menu_today,
+                        R.color.category_groceries, R.color.icon_groceries, null, true, false);
+            case OTHER:
+                return new Category(id, name, android.R.drawable.ic_dialog_info,
+                        R.color.category_default, R.color.icon_default, "budget_other", true, true);
+            case "Salary":
+            case "Freelance":
+            case "Business":
+            case "Investment":
+            case "Gift":
+            case "Rental":
+            case "Bonus":
+            case INCOME:
+                return new Category(id, name, android.R.drawable.ic_dialog_info,
+                        R.color.category_default, R.color.income_green, null, false, true);
+            default:
+                return new Category(id, name);
+        }
+    }
+}
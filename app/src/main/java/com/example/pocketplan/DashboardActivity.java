@@ -23,13 +23,16 @@ import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.textfield.TextInputEditText;
 
-import com.example.pocketplan.notifications.BudgetNotificationChecker;
-import com.example.pocketplan.notifications.LowBalanceChecker;
+import com.example.pocketplan.models.BalanceSnapshot;
+import com.example.pocketplan.models.Category;
+import com.example.pocketplan.models.DataChange;
 import com.example.pocketplan.notifications.NotificationHelper;
 import com.example.pocketplan.notifications.WeeklyScheduler;
+import com.example.pocketplan.utils.Money;
+import com.example.pocketplan.utils.MoneyFormatter;
 
 import java.util.Calendar;
-import java.util.Locale;
+import java.util.List;
 
 public class DashboardActivity extends AppCompatActivity {
 
@@ -40,7 +43,12 @@ public class DashboardActivity extends AppCompatActivity {
     private MaterialCardView cardAddExpense, cardAddIncome, cardBudget, cardReports;
     private MaterialButton btnClearAll;
     private BottomNavigationView bottomNavigation;
-    private DatabaseHelper databaseHelper;
+    private TransactionRepository repository;
+    private final DatabaseHelper.ChangeListener changeListener = this::onDataChanged;
+    private BalanceSnapshot balanceSnapshot = BalanceSnapshot.EMPTY;
+    private long loadedVersion = -1; // data version the balance card reflects
+    private boolean balanceLoading;
+    private int balanceGeneration; // only the newest balance read is shown
     private SharedPreferences prefs;
 
     @Override
@@ -56,7 +64,8 @@ public class DashboardActivity extends AppCompatActivity {
 
         setContentView(R.layout.activity_dashboard);
 
-        databaseHelper = new DatabaseHelper(this);
+        repository = TransactionRepository.getInstance(this);
+        repository.addChangeListener(changeListener);
 
         // Initialize notification channels & schedule weekly summary
         NotificationHelper.createChannels(this);
@@ -73,10 +82,20 @@ public class DashboardActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        loadBalance();
+        if (repository.getDataVersion() != loadedVersion) {
+            loadBalance();
+        }
         loadProfileImage();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (repository != null) { // null when onCreate() sent us to registration
+            repository.removeChangeListener(changeListener);
+        }
+    }
+
     private void initializeViews() {
         tvGreeting = findViewById(R.id.tvGreeting);
         tvUserName = findViewById(R.id.tvUserName);
@@ -153,21 +172,21 @@ public class DashboardActivity extends AppCompatActivity {
         MaterialButton btnCancel = bottomSheetDialog.findViewById(R.id.btnCancelIncome);
 
         // Setup income category dropdown
-        String[] incomeCategories = {
-                "Salary", "Freelance", "Business", "Investment",
-                "Gift", "Rental", "Bonus", "Other"
-        };
         if (actvCategory != null) {
-            ArrayAdapter<String> adapter = new ArrayAdapter<>(
-                    this, android.R.layout.simple_dropdown_item_1line, incomeCategories);
-            actvCategory.setAdapter(adapter);
+            repository.getCategories(registry -> {
+                if (registry == null) return;
+                List<Category> incomeCategories = registry.getIncomeCategories();
+                ArrayAdapter<Category> adapter = new ArrayAdapter<>(
+                        this, android.R.layout.simple_dropdown_item_1line, incomeCategories);
+                actvCategory.setAdapter(adapter);
+            });
         }
 
         if (btnAdd != null) {
             btnAdd.setOnClickListener(v -> {
                 String amountStr = etAmount != null ? etAmount.getText().toString().trim() : "";
                 String source = etSource != null ? etSource.getText().toString().trim() : "";
-                String category = actvCategory != null ? actvCategory.getText().toString().trim() : "Income";
+                String category = actvCategory != null ? actvCategory.getText().toString().trim() : CategoryRegistry.INCOME;
 
                 if (amountStr.isEmpty()) {
                     if (etAmount != null) etAmount.setError("Enter an amount");
@@ -175,25 +194,28 @@ public class DashboardActivity extends AppCompatActivity {
                 }
 
                 try {
-                    double amount = Double.parseDouble(amountStr);
+                    long amount = Money.parseMinor(amountStr);
                     if (amount <= 0) {
                         if (etAmount != null) etAmount.setError("Amount must be greater than 0");
                         return;
                     }
 
                     if (source.isEmpty()) source = "Income";
-                    if (category.isEmpty()) category = "Income";
-
-                    boolean success = saveIncomeTransaction(amount, source, category);
-
-                    if (success) {
-                        Toast.makeText(this, "✓ Income added successfully!", Toast.LENGTH_SHORT).show();
-                        loadBalance();
-                        LowBalanceChecker.check(this);
-                        bottomSheetDialog.dismiss();
-                    } else {
-                        Toast.makeText(this, "Failed to add income", Toast.LENGTH_SHORT).show();
-                    }
+                    if (category.isEmpty()) category = CategoryRegistry.INCOME;
+
+                    btnAdd.setEnabled(false);
+                    repository.addTransaction(source, category, amount, "", "INCOME",
+                            System.currentTimeMillis(), result -> {
+                        Log.d(TAG, "Income transaction saved with ID: " + result);
+                        btnAdd.setEnabled(true);
+                        if (result != -1) {
+                            Toast.makeText(this, "✓ Income added successfully!", Toast.LENGTH_SHORT).show();
+                            repository.checkLowBalance();
+                            bottomSheetDialog.dismiss();
+                        } else {
+                            Toast.makeText(this, "Failed to add income", Toast.LENGTH_SHORT).show();
+                        }
+                    });
 
                 } catch (NumberFormatException e) {
                     if (etAmount != null) etAmount.setError("Invalid amount");
@@ -208,24 +230,6 @@ public class DashboardActivity extends AppCompatActivity {
         bottomSheetDialog.show();
     }
 
-    private boolean saveIncomeTransaction(double amount, String description, String category) {
-        try {
-            long result = databaseHelper.addTransaction(
-                    description,
-                    category,
-                    amount,
-                    "",
-                    "INCOME",
-                    System.currentTimeMillis()
-            );
-            Log.d(TAG, "Income transaction saved with ID: " + result);
-            return result != -1;
-        } catch (Exception e) {
-            Log.e(TAG, "Error saving income: " + e.getMessage(), e);
-            return false;
-        }
-    }
-
     private void setupBottomNavigation() {
         bottomNavigation.setSelectedItemId(R.id.nav_dashboard);
 
@@ -247,22 +251,34 @@ public class DashboardActivity extends AppCompatActivity {
     }
 
     private void loadBalance() {
-        try {
-            double salary = databaseHelper.getSalary();
-            double income = databaseHelper.getTotalIncome();
-            double expense = databaseHelper.getTotalExpense();
-            double totalBalance = salary + income - expense;
-
-            tvTotalBalance.setText(String.format(Locale.getDefault(), "₹%.2f", totalBalance));
-            tvIncome.setText(String.format(Locale.getDefault(), "₹%.2f", income));
-            tvExpense.setText(String.format(Locale.getDefault(), "₹%.2f", expense));
+        int generation = ++balanceGeneration;
+        balanceLoading = true;
+        loadedVersion = repository.getDataVersion();
+        repository.getBalanceSnapshot(snapshot -> {
+            if (generation != balanceGeneration) return;
+            balanceLoading = false;
+            if (snapshot != null) showBalance(snapshot);
+        });
+    }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading balance: " + e.getMessage(), e);
-            tvTotalBalance.setText("₹0.00");
-            tvIncome.setText("₹0.00");
-            tvExpense.setText("₹0.00");
+    // The balance card follows every write: inserts, clears and salary changes
+    // are applied to the shown totals, anything else re-reads the one-row ledger
+    private void onDataChanged(DataChange change) {
+        if (change.getVersion() <= loadedVersion) return;
+        BalanceSnapshot snapshot = balanceLoading ? null : balanceSnapshot.apply(change);
+        if (snapshot == null) {
+            loadBalance();
+            return;
         }
+        loadedVersion = change.getVersion();
+        showBalance(snapshot);
+    }
+
+    private void showBalance(BalanceSnapshot snapshot) {
+        balanceSnapshot = snapshot;
+        tvTotalBalance.setText(MoneyFormatter.getInstance().format(snapshot.getBalance()));
+        tvIncome.setText(MoneyFormatter.getInstance().format(snapshot.getTotalIncome()));
+        tvExpense.setText(MoneyFormatter.getInstance().format(snapshot.getTotalExpense()));
     }
 
     private void showClearAllDialog() {
@@ -282,20 +298,13 @@ public class DashboardActivity extends AppCompatActivity {
     }
 
     private void clearAllData() {
-        try {
-            boolean transactionsCleared = databaseHelper.clearAllTransactions();
-            boolean salaryCleared = databaseHelper.setSalary(0);
-
-            if (transactionsCleared && salaryCleared) {
+        repository.clearAllData(cleared -> {
+            if (cleared) {
                 Toast.makeText(this, "✓ All data cleared successfully", Toast.LENGTH_LONG).show();
-                loadBalance();
             } else {
                 Toast.makeText(this, "Failed to clear some data", Toast.LENGTH_SHORT).show();
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error clearing data: " + e.getMessage(), e);
-            Toast.makeText(this, "Error clearing data", Toast.LENGTH_SHORT).show();
-        }
+        });
     }
 
     @Override
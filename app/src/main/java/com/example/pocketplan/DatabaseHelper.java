@@ -3,30 +3,117 @@ package com.example.pocketplan;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Looper;
 import android.util.Log;
+import android.util.SparseLongArray;
 
+import androidx.annotation.VisibleForTesting;
+
+import com.example.pocketplan.aggregation.TransactionAggregator;
+import com.example.pocketplan.models.BalanceSnapshot;
+import com.example.pocketplan.models.Category;
+import com.example.pocketplan.models.DataChange;
+import com.example.pocketplan.models.ReportSnapshot;
+import com.example.pocketplan.models.SavedFilter;
 import com.example.pocketplan.models.Transaction;
+import com.example.pocketplan.models.TransactionColumns;
+import com.example.pocketplan.models.TransactionFilter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DatabaseHelper extends SQLiteOpenHelper {
 
     private static final String TAG = "DatabaseHelper";
     private static final String DATABASE_NAME = "pocketplan.db";
-    private static final int DATABASE_VERSION = 2; // Increased for salary table
+    private static final int DATABASE_VERSION = 13; // Stored local day on transactions
 
     // Transactions Table
     public static final String TABLE_TRANSACTIONS = "transactions";
     public static final String COL_ID = "id";
     public static final String COL_TITLE = "title";
-    public static final String COL_CATEGORY = "category";
-    public static final String COL_AMOUNT = "amount";
+    public static final String COL_CATEGORY = "category"; // category name, before version 8
+    public static final String COL_CATEGORY_ID = "category_id"; // since version 8
+    public static final String COL_AMOUNT = "amount"; // INTEGER minor units (paise) since version 7
     public static final String COL_NOTE = "note";
     public static final String COL_TYPE = "type"; // INCOME or EXPENSE
     public static final String COL_TIMESTAMP = "timestamp";
+    // dayKey(timestamp) in the time zone of the insert, since version 13; the
+    // rollup triggers use it so a delete after a zone change finds the same keys
+    static final String COL_LOCAL_DAY = "local_day";
+    static final String INDEX_TRANSACTIONS_TIMESTAMP = "idx_transactions_timestamp";
+    static final String INDEX_TRANSACTIONS_TYPE_TIMESTAMP = "idx_transactions_type_timestamp";
+    static final String INDEX_TRANSACTIONS_TYPE_CATEGORY_TIMESTAMP = "idx_transactions_type_category_timestamp";
+    static final String INDEX_TRANSACTIONS_AMOUNT = "idx_transactions_amount";
+    static final String INDEX_TRANSACTIONS_TYPE_TIMESTAMP_ID = "idx_transactions_type_timestamp_id";
+    static final String INDEX_TRANSACTIONS_TYPE_AMOUNT = "idx_transactions_type_amount";
+    static final String INDEX_TRANSACTIONS_CATEGORY_TIMESTAMP = "idx_transactions_category_timestamp";
+
+    // Full-text index over transactions.title/note (external content, kept in sync by triggers)
+    static final String TABLE_TRANSACTIONS_FTS = "transactions_fts";
+    private static final String TRIGGER_FTS_INSERT = "trg_transactions_fts_insert";
+    private static final String TRIGGER_FTS_DELETE = "trg_transactions_fts_delete";
+    private static final String TRIGGER_FTS_UPDATE_BEFORE = "trg_transactions_fts_update_before";
+    private static final String TRIGGER_FTS_UPDATE_AFTER = "trg_transactions_fts_update_after";
+
+    // Saved Filters Table (TransactionFilter fields, see saveFilter())
+    private static final String TABLE_SAVED_FILTERS = "saved_filters";
+    private static final String COL_FILTER_NAME = "name";
+    private static final String COL_FILTER_CATEGORY_IDS = "category_ids"; // comma-separated, "" for any
+    private static final String COL_FILTER_MIN_AMOUNT = "min_amount";
+    private static final String COL_FILTER_MAX_AMOUNT = "max_amount";
+    private static final String COL_FILTER_START_TIME = "start_time";
+    private static final String COL_FILTER_END_TIME = "end_time";
+    private static final String COL_FILTER_TEXT = "text";
+    private static final String COL_FILTER_SORT = "sort"; // TransactionFilter.Sort name
+    private static final String COL_FILTER_CREATED = "created_at";
+
+    // Categories Table
+    public static final String TABLE_CATEGORIES = "categories";
+    public static final String COL_CATEGORY_NAME = "name";
+
+    // Seeded on create/upgrade; users can add more with addCategory()
+    private static final String[] DEFAULT_CATEGORIES = {
+            // Expense
+            "Food & Dining", "Transportation", "Shopping", "Entertainment",
+            "Bills & Utilities", "Healthcare", "Education", "Travel", "Groceries", "Other",
+            // Income
+            "Salary", "Freelance", "Business", "Investment", "Gift", "Rental", "Bonus", "Income"
+    };
+
+    // Rollup Tables (maintained by triggers on transactions)
+    private static final String TABLE_DAILY_TOTALS = "daily_totals";
+    private static final String TABLE_MONTHLY_TOTALS = "monthly_totals";
+    private static final String COL_DAY = "day";     // local date as yyyyMMdd
+    private static final String COL_MONTH = "month"; // local month as yyyyMM
+    private static final String COL_SUM = "sum";
+    private static final String COL_COUNT = "count";
+    private static final String TRIGGER_ROLLUP_INSERT = "trg_transactions_rollup_insert";
+    private static final String TRIGGER_ROLLUP_DELETE = "trg_transactions_rollup_delete";
+
+    // Balance Ledger Table (single row, maintained by triggers)
+    private static final String TABLE_BALANCE_LEDGER = "balance_ledger";
+    private static final String COL_LEDGER_ID = "id"; // always 0
+    private static final String COL_LEDGER_SALARY = "salary";
+    private static final String COL_LEDGER_INCOME = "income";
+    private static final String COL_LEDGER_EXPENSE = "expense";
+    private static final String COL_LEDGER_INCOME_COUNT = "income_count";
+    private static final String COL_LEDGER_EXPENSE_COUNT = "expense_count";
+    private static final String COL_LEDGER_CHANGES = "changes"; // see getChangeCount()
+    private static final String TRIGGER_LEDGER_INSERT = "trg_transactions_ledger_insert";
+    private static final String TRIGGER_LEDGER_DELETE = "trg_transactions_ledger_delete";
+    private static final String TRIGGER_LEDGER_SALARY_INSERT = "trg_settings_ledger_salary_insert";
+    private static final String TRIGGER_LEDGER_SALARY_UPDATE = "trg_settings_ledger_salary_update";
 
     // Salary Table
     private static final String TABLE_SALARY = "salary";
@@ -34,9 +121,101 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String COL_SALARY_AMOUNT = "amount";
     private static final String COL_SALARY_UPDATED = "updated_at";
     private static final String TABLE_SETTINGS = "settings";
+    private static final String COL_SETTINGS_KEY = "key";
+    private static final String COL_SETTINGS_VALUE = "value";
+
+    private static DatabaseHelper instance;
+
+    // Debug builds only (see PocketPlanApplication): opening the database on the main thread throws
+    private static volatile boolean failOnMainThread;
+
+    /** Told about every committed write, on the thread that made it. */
+    public interface ChangeListener {
+        void onDataChanged(DataChange change);
+    }
+
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    // Bumped once per published change; only compared within this process
+    private final AtomicLong dataVersion = new AtomicLong();
+
+    /**
+     * Process-wide helper bound to the application context. Its connection is
+     * kept open for the life of the process, so callers must not close() it.
+     */
+    public static synchronized DatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new DatabaseHelper(context.getApplicationContext());
+        }
+        return instance;
+    }
 
-    public DatabaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    private DatabaseHelper(Context context) {
+        this(context, DATABASE_NAME);
+    }
+
+    /** Pass a null name for a private in-memory database. */
+    @VisibleForTesting
+    DatabaseHelper(Context context, String databaseName) {
+        super(context, databaseName, null, DATABASE_VERSION);
+        // WAL lets list/report reads run concurrently with saves
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Make getReadableDatabase()/getWritableDatabase() throw when called on the
+     * main thread, so database work that bypasses TransactionRepository fails fast.
+     */
+    static void setFailOnMainThread(boolean enabled) {
+        failOnMainThread = enabled;
+    }
+
+    @Override
+    public SQLiteDatabase getReadableDatabase() {
+        checkNotMainThread();
+        return super.getReadableDatabase();
+    }
+
+    @Override
+    public SQLiteDatabase getWritableDatabase() {
+        checkNotMainThread();
+        return super.getWritableDatabase();
+    }
+
+    // ─── Change notifications ────────────────────────────────────────────────────
+
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Version of the data, increased by every write this helper makes.
+     * A screen that remembers the version it loaded can skip an unchanged reload.
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    private void publish(DataChange change) {
+        for (ChangeListener listener : changeListeners) {
+            listener.onDataChanged(change);
+        }
+    }
+
+    private static void checkNotMainThread() {
+        if (failOnMainThread && Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("Database access on the main thread; use TransactionRepository");
+        }
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // Enforce transactions.category_id -> categories.id
+        db.setForeignKeyConstraintsEnabled(true);
     }
 
     @Override
@@ -62,9 +241,30 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         // Insert default salary row
         db.execSQL("INSERT INTO " + TABLE_SALARY + " (amount, updated_at) VALUES (0, " + System.currentTimeMillis() + ")");
 
+        createSettingsTable(db);
+
+        // Bring the fresh version 2 schema through the same migrations as upgraded installs
+        onUpgrade(db, 2, DATABASE_VERSION);
+
         Log.d(TAG, "Database created successfully");
     }
 
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        // The salary has always been kept in the settings table, but it was
+        // never part of onCreate, so existing installs may not have it yet.
+        if (!db.isReadOnly()) {
+            createSettingsTable(db);
+        }
+    }
+
+    private void createSettingsTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_SETTINGS + " (" +
+                COL_SETTINGS_KEY + " TEXT PRIMARY KEY, " +
+                COL_SETTINGS_VALUE + " REAL)");
+    }
+
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         if (oldVersion < 2) {
@@ -76,51 +276,773 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             db.execSQL(createSalaryTable);
             db.execSQL("INSERT INTO " + TABLE_SALARY + " (amount, updated_at) VALUES (0, " + System.currentTimeMillis() + ")");
         }
+        // Versions 3, 4 and 9 only added indexes; see createIndexes()
+        boolean rebuildRollups = false;
+        boolean rebuildLedger = false;
+        boolean rebuildSearchIndex = false;
+        if (oldVersion < 5) {
+            // Daily/monthly rollup tables
+            rebuildRollups = true;
+        }
+        if (oldVersion < 6) {
+            // The ledger's salary triggers live on settings, which older installs may lack
+            createSettingsTable(db);
+            rebuildLedger = true;
+        }
+        if (oldVersion < 7) {
+            // Amounts move from REAL rupees to INTEGER paise. SQLite cannot change a
+            // column type in place, so copy into a new table (this drops the old
+            // table's indexes and triggers, recreated below).
+            db.execSQL("CREATE TABLE " + TABLE_TRANSACTIONS + "_new (" +
+                    COL_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    COL_TITLE + " TEXT NOT NULL, " +
+                    COL_CATEGORY + " TEXT NOT NULL, " +
+                    COL_AMOUNT + " INTEGER NOT NULL, " +
+                    COL_NOTE + " TEXT, " +
+                    COL_TYPE + " TEXT NOT NULL, " +
+                    COL_TIMESTAMP + " INTEGER NOT NULL)");
+            db.execSQL("INSERT INTO " + TABLE_TRANSACTIONS + "_new SELECT " +
+                    COL_ID + ", " + COL_TITLE + ", " + COL_CATEGORY + ", " +
+                    "CAST(ROUND(" + COL_AMOUNT + " * 100) AS INTEGER), " +
+                    COL_NOTE + ", " + COL_TYPE + ", " + COL_TIMESTAMP +
+                    " FROM " + TABLE_TRANSACTIONS);
+            db.execSQL("DROP TABLE " + TABLE_TRANSACTIONS);
+            db.execSQL("ALTER TABLE " + TABLE_TRANSACTIONS + "_new RENAME TO " + TABLE_TRANSACTIONS);
+
+            db.execSQL("UPDATE " + TABLE_SETTINGS + " SET " + COL_SETTINGS_VALUE +
+                    " = CAST(ROUND(" + COL_SETTINGS_VALUE + " * 100) AS INTEGER)" +
+                    " WHERE " + COL_SETTINGS_KEY + " = 'salary'");
+
+            rebuildRollups = true;
+            rebuildLedger = true;
+        }
+        if (oldVersion < 8) {
+            // Category names move to their own table; transactions keep an integer id.
+            // Every name already in use gets a row, so the join below never misses.
+            createCategoriesTable(db);
+            db.execSQL("INSERT OR IGNORE INTO " + TABLE_CATEGORIES + " (" + COL_CATEGORY_NAME + ")" +
+                    " SELECT DISTINCT " + COL_CATEGORY + " FROM " + TABLE_TRANSACTIONS +
+                    " ORDER BY " + COL_CATEGORY);
+            db.execSQL("CREATE TABLE " + TABLE_TRANSACTIONS + "_new (" +
+                    COL_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    COL_TITLE + " TEXT NOT NULL, " +
+                    COL_CATEGORY_ID + " INTEGER NOT NULL REFERENCES " + TABLE_CATEGORIES + " (" + COL_ID + "), " +
+                    COL_AMOUNT + " INTEGER NOT NULL, " +
+                    COL_NOTE + " TEXT, " +
+                    COL_TYPE + " TEXT NOT NULL, " +
+                    COL_TIMESTAMP + " INTEGER NOT NULL)");
+            db.execSQL("INSERT INTO " + TABLE_TRANSACTIONS + "_new SELECT " +
+                    "t." + COL_ID + ", t." + COL_TITLE + ", c." + COL_ID + ", t." + COL_AMOUNT + ", " +
+                    "t." + COL_NOTE + ", t." + COL_TYPE + ", t." + COL_TIMESTAMP +
+                    " FROM " + TABLE_TRANSACTIONS + " t JOIN " + TABLE_CATEGORIES + " c" +
+                    " ON c." + COL_CATEGORY_NAME + " = t." + COL_CATEGORY);
+            db.execSQL("DROP TABLE " + TABLE_TRANSACTIONS);
+            db.execSQL("ALTER TABLE " + TABLE_TRANSACTIONS + "_new RENAME TO " + TABLE_TRANSACTIONS);
+
+            rebuildRollups = true;
+        }
+        if (oldVersion < 10) {
+            // Full-text search over titles and notes
+            rebuildSearchIndex = true;
+        }
+        if (oldVersion < 11) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_SAVED_FILTERS + " (" +
+                    COL_FILTER_NAME + " TEXT PRIMARY KEY, " +
+                    COL_TYPE + " TEXT, " +
+                    COL_FILTER_CATEGORY_IDS + " TEXT NOT NULL DEFAULT '', " +
+                    COL_FILTER_MIN_AMOUNT + " INTEGER NOT NULL, " +
+                    COL_FILTER_MAX_AMOUNT + " INTEGER NOT NULL, " +
+                    COL_FILTER_START_TIME + " INTEGER NOT NULL, " +
+                    COL_FILTER_END_TIME + " INTEGER NOT NULL, " +
+                    COL_FILTER_TEXT + " TEXT, " +
+                    COL_FILTER_SORT + " TEXT NOT NULL, " +
+                    COL_FILTER_CREATED + " INTEGER NOT NULL)");
+        }
+        if (oldVersion < 12 && !rebuildLedger) {
+            // Persistent data version for cached reports; a rebuilt ledger already has it
+            db.execSQL("ALTER TABLE " + TABLE_BALANCE_LEDGER + " ADD COLUMN " +
+                    COL_LEDGER_CHANGES + " INTEGER NOT NULL DEFAULT 0");
+        }
+        if (oldVersion < 13) {
+            // Existing rows get today's zone, the one the rollups were last keyed in;
+            // the rollups are rebuilt from the stored days so both agree
+            db.execSQL("ALTER TABLE " + TABLE_TRANSACTIONS + " ADD COLUMN " +
+                    COL_LOCAL_DAY + " INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE " + TABLE_TRANSACTIONS + " SET " + COL_LOCAL_DAY + " = " +
+                    localDayExpr(COL_TIMESTAMP));
+            rebuildRollups = true;
+        }
+
+        // Derived tables, indexes and triggers always match the final schema,
+        // so they are (re)built here, after every step has run
+        if (rebuildRollups) {
+            rebuildRollups(db);
+        }
+        if (rebuildLedger) {
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_BALANCE_LEDGER);
+            db.execSQL("CREATE TABLE " + TABLE_BALANCE_LEDGER + " (" +
+                    COL_LEDGER_ID + " INTEGER PRIMARY KEY CHECK (" + COL_LEDGER_ID + " = 0), " +
+                    COL_LEDGER_SALARY + " INTEGER NOT NULL DEFAULT 0, " +
+                    COL_LEDGER_INCOME + " INTEGER NOT NULL DEFAULT 0, " +
+                    COL_LEDGER_EXPENSE + " INTEGER NOT NULL DEFAULT 0, " +
+                    COL_LEDGER_INCOME_COUNT + " INTEGER NOT NULL DEFAULT 0, " +
+                    COL_LEDGER_EXPENSE_COUNT + " INTEGER NOT NULL DEFAULT 0, " +
+                    COL_LEDGER_CHANGES + " INTEGER NOT NULL DEFAULT 0)");
+            repairBalanceLedger(db);
+        }
+        if (rebuildSearchIndex) {
+            rebuildSearchIndex(db);
+        }
+        createIndexes(db);
+        createTriggers(db);
     }
 
-    // ==================== TRANSACTION METHODS ====================
+    private void createCategoriesTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_CATEGORIES + " (" +
+                COL_ID + " INTEGER PRIMARY KEY, " +
+                COL_CATEGORY_NAME + " TEXT NOT NULL UNIQUE)");
+        for (String name : DEFAULT_CATEGORIES) {
+            db.execSQL("INSERT OR IGNORE INTO " + TABLE_CATEGORIES +
+                    " (" + COL_CATEGORY_NAME + ") VALUES (?)", new Object[]{name});
+        }
+    }
+
+    private void createIndexes(SQLiteDatabase db) {
+        // Date-sorted keyset pages (queryPage()): ORDER BY timestamp, id, either direction (version 3)
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_TRANSACTIONS_TIMESTAMP +
+                " ON " + TABLE_TRANSACTIONS + " (" + COL_TIMESTAMP + ", " + COL_ID + ")");
+
+        // Trailing amount column makes these covering for SUM(amount):
+        // totals and date-range sums seek on (type, timestamp),
+        // category sums on (type, category_id, timestamp) (version 4)
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_TRANSACTIONS_TYPE_TIMESTAMP +
+                " ON " + TABLE_TRANSACTIONS + " (" +
+                COL_TYPE + ", " + COL_TIMESTAMP + ", " + COL_AMOUNT + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_TRANSACTIONS_TYPE_CATEGORY_TIMESTAMP +
+                " ON " + TABLE_TRANSACTIONS + " (" +
+                COL_TYPE + ", " + COL_CATEGORY_ID + ", " + COL_TIMESTAMP + ", " + COL_AMOUNT + ")");
+
+        // Filtered/sorted list pages (getTransactionsPage()): each serves
+        // WHERE <equality> ORDER BY <key>, id in either direction without a
+        // temp sort. The (type, timestamp, amount) index above cannot, since
+        // amount sits between timestamp and id (version 9)
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_TRANSACTIONS_AMOUNT +
+                " ON " + TABLE_TRANSACTIONS + " (" + COL_AMOUNT + ", " + COL_ID + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_TRANSACTIONS_TYPE_TIMESTAMP_ID +
+                " ON " + TABLE_TRANSACTIONS + " (" + COL_TYPE + ", " + COL_TIMESTAMP + ", " + COL_ID + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_TRANSACTIONS_TYPE_AMOUNT +
+                " ON " + TABLE_TRANSACTIONS + " (" + COL_TYPE + ", " + COL_AMOUNT + ", " + COL_ID + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_TRANSACTIONS_CATEGORY_TIMESTAMP +
+                " ON " + TABLE_TRANSACTIONS + " (" + COL_CATEGORY_ID + ", " + COL_TIMESTAMP + ", " + COL_ID + ")");
+    }
+
+    // ==================== ROLLUP METHODS ====================
+
+    // Same local-time key as dayKey(), computed inside SQLite; only for
+    // filling local_day on upgrade, since 'localtime' follows the current zone
+    private static String localDayExpr(String timestampColumn) {
+        return "CAST(strftime('%Y%m%d', " + timestampColumn + " / 1000, 'unixepoch', 'localtime') AS INTEGER)";
+    }
+
+    // yyyyMM from a stored yyyyMMdd
+    private static String monthOfDayExpr(String dayColumn) {
+        return "(" + dayColumn + " / 100)";
+    }
+
+    /** Local calendar day of an instant as yyyyMMdd, the key of daily_totals. */
+    public static long dayKey(long timeMillis) {
+        return dayKey(Calendar.getInstance(), timeMillis);
+    }
+
+    // Reuses cal, for batches
+    private static long dayKey(Calendar cal, long timeMillis) {
+        cal.setTimeInMillis(timeMillis);
+        return cal.get(Calendar.YEAR) * 10000L
+                + (cal.get(Calendar.MONTH) + 1) * 100L
+                + cal.get(Calendar.DAY_OF_MONTH);
+    }
+
+    /** Local calendar month of an instant as yyyyMM, the key of monthly_totals. */
+    public static long monthKey(long timeMillis) {
+        return dayKey(timeMillis) / 100;
+    }
+
+    private void createTriggers(SQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_ROLLUP_INSERT);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_ROLLUP_DELETE);
+
+        // No UPSERT before SQLite 3.24 (API 30): seed an empty row, then add to it.
+        // Keys come from the stored local_day, never the current zone, so a
+        // delete always takes the amount back out of the row the insert added to
+        db.execSQL("CREATE TRIGGER " + TRIGGER_ROLLUP_INSERT +
+                " AFTER INSERT ON " + TABLE_TRANSACTIONS + " BEGIN " +
+                rollupAddSql(TABLE_DAILY_TOTALS, COL_DAY, "NEW." + COL_LOCAL_DAY) +
+                rollupAddSql(TABLE_MONTHLY_TOTALS, COL_MONTH, monthOfDayExpr("NEW." + COL_LOCAL_DAY)) +
+                "END");
+
+        db.execSQL("CREATE TRIGGER " + TRIGGER_ROLLUP_DELETE +
+                " AFTER DELETE ON " + TABLE_TRANSACTIONS + " BEGIN " +
+                rollupRemoveSql(TABLE_DAILY_TOTALS, COL_DAY, "OLD." + COL_LOCAL_DAY) +
+                rollupRemoveSql(TABLE_MONTHLY_TOTALS, COL_MONTH, monthOfDayExpr("OLD." + COL_LOCAL_DAY)) +
+                "END");
+
+        createLedgerTriggers(db);
+        createSearchTriggers(db);
+    }
+
+    private static String rollupAddSql(String table, String keyColumn, String keyExpr) {
+        String match = " WHERE " + keyColumn + " = " + keyExpr +
+                " AND " + COL_TYPE + " = NEW." + COL_TYPE +
+                " AND " + COL_CATEGORY_ID + " = NEW." + COL_CATEGORY_ID + "; ";
+        return "INSERT OR IGNORE INTO " + table +
+                " (" + keyColumn + ", " + COL_TYPE + ", " + COL_CATEGORY_ID + ")" +
+                " VALUES (" + keyExpr + ", NEW." + COL_TYPE + ", NEW." + COL_CATEGORY_ID + "); " +
+                "UPDATE " + table + " SET " +
+                COL_SUM + " = " + COL_SUM + " + NEW." + COL_AMOUNT + ", " +
+                COL_COUNT + " = " + COL_COUNT + " + 1" + match;
+    }
+
+    private static String rollupRemoveSql(String table, String keyColumn, String keyExpr) {
+        String match = " WHERE " + keyColumn + " = " + keyExpr +
+                " AND " + COL_TYPE + " = OLD." + COL_TYPE +
+                " AND " + COL_CATEGORY_ID + " = OLD." + COL_CATEGORY_ID;
+        return "UPDATE " + table + " SET " +
+                COL_SUM + " = " + COL_SUM + " - OLD." + COL_AMOUNT + ", " +
+                COL_COUNT + " = " + COL_COUNT + " - 1" + match + "; " +
+                "DELETE FROM " + table + match + " AND " + COL_COUNT + " <= 0; ";
+    }
+
+    /** Recreate both rollup tables and fill them from the transactions table. */
+    private void rebuildRollups(SQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_DAILY_TOTALS);
+        db.execSQL("CREATE TABLE " + TABLE_DAILY_TOTALS + " (" +
+                COL_DAY + " INTEGER NOT NULL, " +
+                COL_TYPE + " TEXT NOT NULL, " +
+                COL_CATEGORY_ID + " INTEGER NOT NULL, " +
+                COL_SUM + " INTEGER NOT NULL DEFAULT 0, " +
+                COL_COUNT + " INTEGER NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (" + COL_DAY + ", " + COL_TYPE + ", " + COL_CATEGORY_ID + ")) WITHOUT ROWID");
+        db.execSQL("INSERT INTO " + TABLE_DAILY_TOTALS +
+                " SELECT " + COL_LOCAL_DAY + ", " + COL_TYPE + ", " + COL_CATEGORY_ID +
+                ", SUM(" + COL_AMOUNT + "), COUNT(*) FROM " + TABLE_TRANSACTIONS +
+                " GROUP BY 1, 2, 3");
+
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_MONTHLY_TOTALS);
+        db.execSQL("CREATE TABLE " + TABLE_MONTHLY_TOTALS + " (" +
+                COL_MONTH + " INTEGER NOT NULL, " +
+                COL_TYPE + " TEXT NOT NULL, " +
+                COL_CATEGORY_ID + " INTEGER NOT NULL, " +
+                COL_SUM + " INTEGER NOT NULL DEFAULT 0, " +
+                COL_COUNT + " INTEGER NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (" + COL_MONTH + ", " + COL_TYPE + ", " + COL_CATEGORY_ID + ")) WITHOUT ROWID");
+        db.execSQL("INSERT INTO " + TABLE_MONTHLY_TOTALS +
+                " SELECT " + monthOfDayExpr(COL_LOCAL_DAY) + ", " + COL_TYPE + ", " + COL_CATEGORY_ID +
+                ", SUM(" + COL_AMOUNT + "), COUNT(*) FROM " + TABLE_TRANSACTIONS +
+                " GROUP BY 1, 2, 3");
+        Log.d(TAG, "Rollup tables rebuilt");
+    }
+
+    // ==================== SEARCH INDEX METHODS ====================
 
-    public List<com.example.pocketplan.models.Transaction> getAllTransactions() {
-        List<com.example.pocketplan.models.Transaction> transactions = new ArrayList<>();
+    /**
+     * Recreate the FTS4 table and index every transaction. FTS4 rather than
+     * FTS5, which not every supported SQLite build includes. The prefix
+     * indexes make 2- and 3-character prefix queries (search-as-you-type)
+     * index lookups instead of a scan over the term list.
+     */
+    private void rebuildSearchIndex(SQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_TRANSACTIONS_FTS);
+        db.execSQL("CREATE VIRTUAL TABLE " + TABLE_TRANSACTIONS_FTS + " USING fts4(" +
+                "content=\"" + TABLE_TRANSACTIONS + "\", " +
+                COL_TITLE + ", " + COL_NOTE + ", prefix=\"2,3\")");
+        db.execSQL("INSERT INTO " + TABLE_TRANSACTIONS_FTS + "(" + TABLE_TRANSACTIONS_FTS + ")" +
+                " VALUES ('rebuild')");
+        Log.d(TAG, "Search index rebuilt");
+    }
+
+    // An external-content FTS table reads the old text from transactions to
+    // unindex it, so removal has to happen before the row changes
+    private void createSearchTriggers(SQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_FTS_INSERT);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_FTS_DELETE);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_FTS_UPDATE_BEFORE);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_FTS_UPDATE_AFTER);
+
+        String index = "INSERT INTO " + TABLE_TRANSACTIONS_FTS +
+                " (docid, " + COL_TITLE + ", " + COL_NOTE + ")" +
+                " VALUES (NEW." + COL_ID + ", NEW." + COL_TITLE + ", NEW." + COL_NOTE + "); ";
+        String unindex = "DELETE FROM " + TABLE_TRANSACTIONS_FTS +
+                " WHERE docid = OLD." + COL_ID + "; ";
+
+        db.execSQL("CREATE TRIGGER " + TRIGGER_FTS_INSERT +
+                " AFTER INSERT ON " + TABLE_TRANSACTIONS + " BEGIN " + index + "END");
+        db.execSQL("CREATE TRIGGER " + TRIGGER_FTS_DELETE +
+                " BEFORE DELETE ON " + TABLE_TRANSACTIONS + " BEGIN " + unindex + "END");
+        db.execSQL("CREATE TRIGGER " + TRIGGER_FTS_UPDATE_BEFORE +
+                " BEFORE UPDATE OF " + COL_TITLE + ", " + COL_NOTE + " ON " + TABLE_TRANSACTIONS +
+                " BEGIN " + unindex + "END");
+        db.execSQL("CREATE TRIGGER " + TRIGGER_FTS_UPDATE_AFTER +
+                " AFTER UPDATE OF " + COL_TITLE + ", " + COL_NOTE + " ON " + TABLE_TRANSACTIONS +
+                " BEGIN " + index + "END");
+    }
+
+    /**
+     * Turn typed text into an FTS prefix query: every word must match the
+     * start of a word, e.g. "Coffee sta" -> "coffee* sta*". Punctuation,
+     * quotes and operators are dropped.
+     * @param column Restrict every word to this column, or null for any column
+     * @return The MATCH expression, or null if no word is left
+     */
+    static String toPrefixQuery(String text, String column) {
+        StringBuilder query = new StringBuilder();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i > start) {
+                if (query.length() > 0) query.append(' ');
+                if (column != null) query.append(column).append(':');
+                // Lower case, so a word like OR or NEAR is not read as an operator
+                query.append(text.substring(start, i).toLowerCase(Locale.ROOT)).append('*');
+            }
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    // ==================== BALANCE LEDGER METHODS ====================
+
+    private void createLedgerTriggers(SQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_LEDGER_INSERT);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_LEDGER_DELETE);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_LEDGER_SALARY_INSERT);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_LEDGER_SALARY_UPDATE);
+
+        db.execSQL("CREATE TRIGGER " + TRIGGER_LEDGER_INSERT +
+                " AFTER INSERT ON " + TABLE_TRANSACTIONS + " BEGIN " +
+                ledgerApplySql("NEW", "+") + "END");
+
+        db.execSQL("CREATE TRIGGER " + TRIGGER_LEDGER_DELETE +
+                " AFTER DELETE ON " + TABLE_TRANSACTIONS + " BEGIN " +
+                ledgerApplySql("OLD", "-") + "END");
+
+        String setSalary = " BEGIN UPDATE " + TABLE_BALANCE_LEDGER + " SET " +
+                COL_LEDGER_SALARY + " = NEW." + COL_SETTINGS_VALUE + ", " +
+                COL_LEDGER_CHANGES + " = " + COL_LEDGER_CHANGES + " + 1; END";
+        db.execSQL("CREATE TRIGGER " + TRIGGER_LEDGER_SALARY_INSERT +
+                " AFTER INSERT ON " + TABLE_SETTINGS +
+                " WHEN NEW." + COL_SETTINGS_KEY + " = 'salary'" + setSalary);
+        db.execSQL("CREATE TRIGGER " + TRIGGER_LEDGER_SALARY_UPDATE +
+                " AFTER UPDATE ON " + TABLE_SETTINGS +
+                " WHEN NEW." + COL_SETTINGS_KEY + " = 'salary'" + setSalary);
+    }
+
+    private static String ledgerApplySql(String row, String op) {
+        String isIncome = row + "." + COL_TYPE + " = 'INCOME'";
+        String isExpense = row + "." + COL_TYPE + " = 'EXPENSE'";
+        String amount = row + "." + COL_AMOUNT;
+        return "UPDATE " + TABLE_BALANCE_LEDGER + " SET " +
+                COL_LEDGER_INCOME + " = " + COL_LEDGER_INCOME + " " + op +
+                " CASE WHEN " + isIncome + " THEN " + amount + " ELSE 0 END, " +
+                COL_LEDGER_EXPENSE + " = " + COL_LEDGER_EXPENSE + " " + op +
+                " CASE WHEN " + isExpense + " THEN " + amount + " ELSE 0 END, " +
+                COL_LEDGER_INCOME_COUNT + " = " + COL_LEDGER_INCOME_COUNT + " " + op +
+                " CASE WHEN " + isIncome + " THEN 1 ELSE 0 END, " +
+                COL_LEDGER_EXPENSE_COUNT + " = " + COL_LEDGER_EXPENSE_COUNT + " " + op +
+                " CASE WHEN " + isExpense + " THEN 1 ELSE 0 END, " +
+                COL_LEDGER_CHANGES + " = " + COL_LEDGER_CHANGES + " + 1; ";
+    }
+
+    /**
+     * Recompute the balance ledger from the transactions and settings tables.
+     * The triggers keep it current; this is for migrations and recovery.
+     * @return true if successful, false otherwise
+     */
+    public boolean repairBalanceLedger() {
+        try {
+            repairBalanceLedger(this.getWritableDatabase());
+            return true;
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error repairing balance ledger: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void repairBalanceLedger(SQLiteDatabase db) {
+        db.execSQL("INSERT OR REPLACE INTO " + TABLE_BALANCE_LEDGER + " (" +
+                COL_LEDGER_ID + ", " + COL_LEDGER_SALARY + ", " +
+                COL_LEDGER_INCOME + ", " + COL_LEDGER_EXPENSE + ", " +
+                COL_LEDGER_INCOME_COUNT + ", " + COL_LEDGER_EXPENSE_COUNT + ", " +
+                COL_LEDGER_CHANGES + ") " +
+                "SELECT 0, " +
+                "COALESCE((SELECT " + COL_SETTINGS_VALUE + " FROM " + TABLE_SETTINGS +
+                " WHERE " + COL_SETTINGS_KEY + " = 'salary'), 0), " +
+                "COALESCE(SUM(CASE WHEN " + COL_TYPE + " = 'INCOME' THEN " + COL_AMOUNT + " END), 0), " +
+                "COALESCE(SUM(CASE WHEN " + COL_TYPE + " = 'EXPENSE' THEN " + COL_AMOUNT + " END), 0), " +
+                "COUNT(CASE WHEN " + COL_TYPE + " = 'INCOME' THEN 1 END), " +
+                "COUNT(CASE WHEN " + COL_TYPE + " = 'EXPENSE' THEN 1 END), " +
+                // Counts as a change itself, so nothing cached against the old row survives
+                "COALESCE((SELECT " + COL_LEDGER_CHANGES + " FROM " + TABLE_BALANCE_LEDGER + "), 0) + 1 " +
+                "FROM " + TABLE_TRANSACTIONS);
+        Log.d(TAG, "Balance ledger recomputed");
+    }
+
+    /**
+     * Current balance (salary + income - expense) from the ledger row.
+     * @return Balance in paise, or 0 on error
+     */
+    public long getBalance() {
         SQLiteDatabase db = this.getReadableDatabase();
+        long balance = 0;
         try {
             Cursor cursor = db.rawQuery(
-                    "SELECT * FROM " + TABLE_TRANSACTIONS +
-                            " ORDER BY " + COL_TIMESTAMP + " DESC", null);
+                    "SELECT " + COL_LEDGER_SALARY + " + " + COL_LEDGER_INCOME + " - " + COL_LEDGER_EXPENSE +
+                            " FROM " + TABLE_BALANCE_LEDGER, null);
             if (cursor.moveToFirst()) {
-                do {
-                    com.example.pocketplan.models.Transaction t =
-                            new com.example.pocketplan.models.Transaction(
-                                    cursor.getInt(cursor.getColumnIndexOrThrow(COL_ID)),
-                                    cursor.getString(cursor.getColumnIndexOrThrow(COL_TITLE)),
-                                    cursor.getString(cursor.getColumnIndexOrThrow(COL_CATEGORY)),
-                                    cursor.getDouble(cursor.getColumnIndexOrThrow(COL_AMOUNT)),
-                                    cursor.getString(cursor.getColumnIndexOrThrow(COL_NOTE)),
-                                    cursor.getString(cursor.getColumnIndexOrThrow(COL_TYPE)),
-                                    cursor.getLong(cursor.getColumnIndexOrThrow(COL_TIMESTAMP))
-                            );
-                    transactions.add(t);
-                } while (cursor.moveToNext());
+                balance = cursor.getLong(0);
             }
             cursor.close();
         } catch (Exception e) {
-            Log.e("DatabaseHelper", "Error getAllTransactions: " + e.getMessage(), e);
+            Log.e("DatabaseHelper", "Error getBalance: " + e.getMessage(), e);
+        }
+        return balance;
+    }
+
+    /**
+     * Number of row changes the ledger triggers have seen: every insert,
+     * delete and salary write adds one, in the same transaction. Unlike
+     * getDataVersion() it is stored in the database, so a cache written by an
+     * earlier process can tell whether the data has changed since.
+     * @return The count, or -1 on error
+     */
+    public long getChangeCount() {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery(
+                "SELECT " + COL_LEDGER_CHANGES + " FROM " + TABLE_BALANCE_LEDGER, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : -1;
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error getChangeCount: " + e.getMessage(), e);
+            return -1;
+        }
+    }
+
+    // ==================== TRANSACTION METHODS ====================
+
+    // Columns a list row renders, in the order readListRows() reads them by
+    // position. The note is left out; see getTransactionNote().
+    private static final String LIST_COLUMNS = listColumns("");
+    private static final int LIST_ID = 0;
+    private static final int LIST_TITLE = 1;
+    private static final int LIST_CATEGORY_ID = 2;
+    private static final int LIST_AMOUNT = 3;
+    private static final int LIST_TYPE = 4;
+    private static final int LIST_TIMESTAMP = 5;
+
+    private static String listColumns(String prefix) {
+        return prefix + COL_ID + ", " + prefix + COL_TITLE + ", " + prefix + COL_CATEGORY_ID +
+                ", " + prefix + COL_AMOUNT + ", " + prefix + COL_TYPE + ", " + prefix + COL_TIMESTAMP;
+    }
+
+    /**
+     * One page of transactions matching a filter, in the filter's sort order.
+     * Keyset paging: pass null for the first page, then the last row received.
+     * Every filter/sort combination the list offers has an index that returns
+     * rows already in order (see createIndexes()).
+     * @param filter What to match (see TransactionFilter), and the sort order
+     * @param after Last row of the previous page, or null for the first page
+     * @param limit Maximum number of rows to return
+     * @return Up to limit transactions (without notes), empty on error
+     */
+    public List<Transaction> getTransactionsPage(TransactionFilter filter, Transaction after, int limit) {
+        List<Transaction> transactions = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = queryPage(db, filter, after, limit)) {
+            readListRows(cursor, transactions);
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error getTransactionsPage: " + e.getMessage(), e);
+        }
+        return transactions;
+    }
+
+    /**
+     * Same page as getTransactionsPage(), read into primitive columns
+     * without building a Transaction per row.
+     * @return Up to limit rows, empty on error
+     */
+    public TransactionColumns getTransactionColumns(TransactionFilter filter, Transaction after, int limit) {
+        TransactionColumns columns = new TransactionColumns(limit);
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = queryPage(db, filter, after, limit)) {
+            while (cursor.moveToNext()) {
+                columns.add(
+                        cursor.getInt(LIST_ID),
+                        cursor.getString(LIST_TITLE),
+                        cursor.getInt(LIST_CATEGORY_ID),
+                        cursor.getLong(LIST_AMOUNT),
+                        cursor.getString(LIST_TYPE),
+                        cursor.getLong(LIST_TIMESTAMP));
+            }
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error getTransactionColumns: " + e.getMessage(), e);
+            return new TransactionColumns(0);
+        }
+        return columns;
+    }
+
+    /*
+     * The LIST_COLUMNS query behind both page methods. The whole filter
+     * compiles to one parameterized statement, shaped so the first page
+     * never needs the whole table:
+     *  - the sort key's index drives the scan, in order, so LIMIT stops it
+     *    after one page (no temp sort over every match);
+     *  - type and a single category are equality terms, which the composite
+     *    (type|category_id, key, id) indexes combine with that order;
+     *  - other ranges and category sets are written with a unary + so the
+     *    planner checks them per row instead of seeking on them and sorting;
+     *  - text restricts to the rowids the full-text index returns.
+     */
+    private static Cursor queryPage(SQLiteDatabase db, TransactionFilter filter,
+                                    Transaction after, int limit) {
+        TransactionFilter.Sort sort = filter.getSort();
+        String key = sort.isByAmount() ? COL_AMOUNT : COL_TIMESTAMP;
+        String direction = sort.isDescending() ? " DESC" : " ASC";
+
+        StringBuilder where = new StringBuilder();
+        List<String> args = new ArrayList<>();
+        appendFilterConditions(where, args, filter, sort);
+        String match = filter.hasText() ? toPrefixQuery(filter.getText(), null) : null;
+        if (match != null) {
+            appendCondition(where, COL_ID + " IN (SELECT docid FROM " + TABLE_TRANSACTIONS_FTS +
+                    " WHERE " + TABLE_TRANSACTIONS_FTS + " MATCH ?)");
+            args.add(match);
+        }
+        if (after != null) {
+            // Rows past the last one in (key, id) order, written without row values
+            // (SQLite 3.15+) to stay compatible with minSdk 24
+            String past = sort.isDescending() ? " < ?" : " > ?";
+            appendCondition(where, key + (sort.isDescending() ? " <= ?" : " >= ?") +
+                    " AND (" + key + past + " OR " + COL_ID + past + ")");
+            String keyValue = String.valueOf(sort.key(after));
+            args.add(keyValue);
+            args.add(keyValue);
+            args.add(String.valueOf(after.getId()));
+        }
+        args.add(String.valueOf(limit));
+
+        return db.rawQuery("SELECT " + LIST_COLUMNS + " FROM " + TABLE_TRANSACTIONS + where +
+                " ORDER BY " + key + direction + ", " + COL_ID + direction +
+                " LIMIT ?", args.toArray(new String[0]));
+    }
+
+    // A placeholder for a number; see appendFilterConditions()
+    private static final String INTEGER_ARG = "CAST(? AS INTEGER)";
+
+    /*
+     * The filter's type, categories, amount and date ranges (not its text or
+     * sort). With a sort, terms that its index cannot serve in order get a
+     * unary + (see queryPage()); pass null when something else drives the scan.
+     * A +column has no affinity, so numeric args are cast back from the TEXT
+     * rawQuery binds them as; otherwise an INTEGER never equals or exceeds them.
+     */
+    private static void appendFilterConditions(StringBuilder where, List<String> args,
+                                               TransactionFilter filter, TransactionFilter.Sort sort) {
+        String perRow = sort != null ? "+" : "";
+        if (filter.getType() != null) {
+            appendCondition(where, COL_TYPE + " = ?");
+            args.add(filter.getType());
+        }
+        int[] categoryIds = filter.getCategoryIds();
+        if (categoryIds.length == 1) {
+            appendCondition(where, COL_CATEGORY_ID + " = ?");
+            args.add(String.valueOf(categoryIds[0]));
+        } else if (categoryIds.length > 1) {
+            StringBuilder in = new StringBuilder(perRow + COL_CATEGORY_ID + " IN (");
+            for (int i = 0; i < categoryIds.length; i++) {
+                in.append(i == 0 ? INTEGER_ARG : ", " + INTEGER_ARG);
+                args.add(String.valueOf(categoryIds[i]));
+            }
+            appendCondition(where, in.append(')').toString());
+        }
+        if (filter.hasAmountRange()) {
+            String amount = (sort != null && sort.isByAmount() ? "" : perRow) + COL_AMOUNT;
+            appendCondition(where, amount + " >= " + INTEGER_ARG + " AND " + amount + " <= " + INTEGER_ARG);
+            args.add(String.valueOf(filter.getMinAmount()));
+            args.add(String.valueOf(filter.getMaxAmount()));
+        }
+        if (filter.hasDateRange()) {
+            String timestamp = (sort != null && !sort.isByAmount() ? "" : perRow) + COL_TIMESTAMP;
+            appendCondition(where, timestamp + " >= " + INTEGER_ARG + " AND " + timestamp + " < " + INTEGER_ARG);
+            args.add(String.valueOf(filter.getStartTime()));
+            args.add(String.valueOf(filter.getEndTime()));
+        }
+    }
+
+    /**
+     * Transactions whose title or note has words starting with every word
+     * of the text, e.g. "cof sta" finds "Coffee at Starbucks". Rows where
+     * all the words are in the title rank first; ties are newest first.
+     * Served by the full-text index, so the cost follows the number of
+     * matches rather than the size of the ledger. Pages are keyed on the
+     * last row shown rather than an offset, so a later page skips the rows
+     * before it instead of ranking them again.
+     * @param text What the user typed
+     * @param filter Type, categories, amount and date ranges to match; its text and sort are not used
+     * @param after Last row of the previous page (a result of this search), or null for the first page
+     * @param limit Maximum number of rows to return
+     * @return Up to limit transactions (without notes), empty if the text has no words or on error
+     */
+    public List<Transaction> searchTransactions(String text, TransactionFilter filter,
+                                                Transaction after, int limit) {
+        List<Transaction> transactions = new ArrayList<>();
+        String anywhere = toPrefixQuery(text, null);
+        if (anywhere == null) return transactions;
+        String inTitle = toPrefixQuery(text, COL_TITLE);
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        StringBuilder where = new StringBuilder(" WHERE " + TABLE_TRANSACTIONS_FTS + " MATCH ?");
+        List<String> args = new ArrayList<>();
+        args.add(anywhere);
+        appendFilterConditions(where, args, filter, null);
+
+        // The title-only MATCH is an uncorrelated IN, evaluated once per query
+        String titleMatch = "t." + COL_ID + " IN (SELECT docid FROM " + TABLE_TRANSACTIONS_FTS +
+                " WHERE " + TABLE_TRANSACTIONS_FTS + " MATCH ?)";
+        try {
+            if (after != null) {
+                // Rows after it in (title match, timestamp, id) order: older rows in
+                // its own rank, and every note-only match if it was a title match
+                String older = "(t." + COL_TIMESTAMP + " < ? OR (t." + COL_TIMESTAMP + " = ? AND t." +
+                        COL_ID + " < ?))";
+                boolean afterInTitle = DatabaseUtils.longForQuery(db,
+                        "SELECT COUNT(*) FROM " + TABLE_TRANSACTIONS_FTS + " WHERE docid = " + INTEGER_ARG +
+                                " AND " + TABLE_TRANSACTIONS_FTS + " MATCH ?",
+                        new String[]{String.valueOf(after.getId()), inTitle}) > 0;
+                appendCondition(where, afterInTitle
+                        ? "(NOT " + titleMatch + " OR " + older + ")"
+                        : "NOT " + titleMatch + " AND " + older);
+                args.add(inTitle);
+                args.add(String.valueOf(after.getTimestamp()));
+                args.add(String.valueOf(after.getTimestamp()));
+                args.add(String.valueOf(after.getId()));
+            }
+            args.add(inTitle);
+            args.add(String.valueOf(limit));
+
+            try (Cursor cursor = db.rawQuery("SELECT " + listColumns("t.") +
+                    " FROM " + TABLE_TRANSACTIONS_FTS +
+                    " JOIN " + TABLE_TRANSACTIONS + " t ON t." + COL_ID + " = " + TABLE_TRANSACTIONS_FTS + ".docid" +
+                    where +
+                    " ORDER BY " + titleMatch + " DESC, " +
+                    "t." + COL_TIMESTAMP + " DESC, t." + COL_ID + " DESC" +
+                    " LIMIT ?", args.toArray(new String[0]))) {
+                readListRows(cursor, transactions);
+            }
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error searchTransactions: " + e.getMessage(), e);
         }
         return transactions;
     }
 
+    private static void appendCondition(StringBuilder where, String condition) {
+        where.append(where.length() == 0 ? " WHERE " : " AND ").append(condition);
+    }
+
+    // Reads a "SELECT " + LIST_COLUMNS cursor; notes are left null
+    private static void readListRows(Cursor cursor,
+                                     List<com.example.pocketplan.models.Transaction> out) {
+        while (cursor.moveToNext()) {
+            out.add(new com.example.pocketplan.models.Transaction(
+                    cursor.getInt(LIST_ID),
+                    cursor.getString(LIST_TITLE),
+                    cursor.getInt(LIST_CATEGORY_ID),
+                    cursor.getLong(LIST_AMOUNT),
+                    null,
+                    cursor.getString(LIST_TYPE),
+                    cursor.getLong(LIST_TIMESTAMP)
+            ));
+        }
+    }
+
+    /**
+     * The note of one transaction, for the detail view; list queries leave it out.
+     * @return The note, or null if there is none or the row is gone
+     */
+    public String getTransactionNote(int id) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery(
+                "SELECT " + COL_NOTE + " FROM " + TABLE_TRANSACTIONS + " WHERE " + COL_ID + " = ?",
+                new String[]{String.valueOf(id)})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error getTransactionNote: " + e.getMessage(), e);
+            return null;
+        }
+    }
 
 
     public boolean deleteTransaction(int id) {
         SQLiteDatabase db = this.getWritableDatabase();
         int rowsDeleted = db.delete(TABLE_TRANSACTIONS, COL_ID + " = ?", new String[]{String.valueOf(id)});
         Log.d(TAG, "Deleted transaction ID " + id + ", rows affected: " + rowsDeleted);
+        if (rowsDeleted > 0) {
+            publish(DataChange.deleted(dataVersion.incrementAndGet(), id));
+        }
         return rowsDeleted > 0;
     }
 
+    // ==================== BALANCE METHODS ====================
+
+    /**
+     * Salary, income/expense totals and per-type counts in one query.
+     * Reads the single balance_ledger row, so its cost does not grow with history.
+     * @return Snapshot of the current balance, or BalanceSnapshot.EMPTY on error
+     */
+    public BalanceSnapshot getBalanceSnapshot() {
+        SQLiteDatabase db = this.getReadableDatabase();
+        BalanceSnapshot snapshot = BalanceSnapshot.EMPTY;
+        Cursor cursor = null;
+
+        try {
+            String query = "SELECT " +
+                    COL_LEDGER_SALARY + ", " +
+                    COL_LEDGER_INCOME + ", " +
+                    COL_LEDGER_EXPENSE + ", " +
+                    COL_LEDGER_INCOME_COUNT + ", " +
+                    COL_LEDGER_EXPENSE_COUNT +
+                    " FROM " + TABLE_BALANCE_LEDGER;
+
+            cursor = db.rawQuery(query, null);
+
+            if (cursor.moveToFirst()) {
+                snapshot = new BalanceSnapshot(
+                        cursor.getLong(0),
+                        cursor.getLong(1),
+                        cursor.getLong(2),
+                        cursor.getInt(3),
+                        cursor.getInt(4));
+            }
+
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error getBalanceSnapshot: " + e.getMessage(), e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return snapshot;
+    }
+
     // ==================== SALARY METHODS ====================
     
-    public long addTransaction(String title, String category, double amount,
+    /**
+     * Insert a single transaction.
+     * @param categoryId Id from the categories table (see CategoryRegistry)
+     * @param amount Amount in paise
+     * @return New row id, or -1 on error
+     */
+    public long addTransaction(String title, int categoryId, long amount,
                                String note, String type, long timestamp) {
         SQLiteDatabase db = null;
         long result = -1;
@@ -130,95 +1052,234 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
             ContentValues values = new ContentValues();
             values.put("title", title);
-            values.put("category", category);
+            values.put(COL_CATEGORY_ID, categoryId);
             values.put("amount", amount);
             values.put("note", note);
             values.put("type", type);
             values.put("timestamp", timestamp);
+            values.put(COL_LOCAL_DAY, dayKey(timestamp));
 
             result = db.insert(TABLE_TRANSACTIONS, null, values);
 
             Log.d("DatabaseHelper", "Transaction added with ID: " + result);
 
+            if (result != -1) {
+                publish(DataChange.inserted(dataVersion.incrementAndGet(), new Transaction(
+                        (int) result, title, categoryId, amount, note, type, timestamp)));
+            }
+
         } catch (Exception e) {
             Log.e("DatabaseHelper", "Error adding transaction: " + e.getMessage(), e);
-        } finally {
-            if (db != null && db.isOpen()) {
-                db.close();
-            }
         }
 
         return result;
     }
 
     /**
-     * Get total income from all INCOME transactions
-     * @return Total income amount
+     * Insert many transactions in one database transaction, reusing a single
+     * compiled INSERT statement. Ids of the given Transaction objects are ignored.
+     * A row that fails (e.g. a missing title) gets -1 and the others are kept.
+     * Listeners get a single BULK_INSERTED change, not one per row.
+     * @param transactions Rows to insert
+     * @return New row id for each input row, in order, or -1 for failed rows
      */
-    public double getTotalIncome() {
-        SQLiteDatabase db = null;
-        Cursor cursor = null;
-        double totalIncome = 0;
+    public long[] addTransactions(List<Transaction> transactions) {
+        long[] ids = new long[transactions.size()];
+        Arrays.fill(ids, -1);
+        SQLiteDatabase db = this.getWritableDatabase();
+        SQLiteStatement insert = null;
+        Calendar cal = Calendar.getInstance();
 
+        db.beginTransaction();
         try {
-            db = this.getReadableDatabase();
-
-            String query = "SELECT SUM(amount) as total FROM " + TABLE_TRANSACTIONS +
-                    " WHERE type = 'INCOME'";
-
-            cursor = db.rawQuery(query, null);
-
-            if (cursor != null && cursor.moveToFirst()) {
-                totalIncome = cursor.getDouble(0);
+            insert = db.compileStatement("INSERT INTO " + TABLE_TRANSACTIONS + " (" +
+                    COL_TITLE + ", " + COL_CATEGORY_ID + ", " + COL_AMOUNT + ", " +
+                    COL_NOTE + ", " + COL_TYPE + ", " + COL_TIMESTAMP + ", " + COL_LOCAL_DAY + ")" +
+                    " VALUES (?, ?, ?, ?, ?, ?, ?)");
+
+            for (int i = 0; i < ids.length; i++) {
+                Transaction t = transactions.get(i);
+                bindStringOrNull(insert, 1, t.getTitle());
+                insert.bindLong(2, t.getCategoryId());
+                insert.bindLong(3, t.getAmount());
+                bindStringOrNull(insert, 4, t.getNote());
+                bindStringOrNull(insert, 5, t.getType());
+                insert.bindLong(6, t.getTimestamp());
+                insert.bindLong(7, dayKey(cal, t.getTimestamp()));
+                try {
+                    ids[i] = insert.executeInsert();
+                } catch (SQLException e) {
+                    Log.w("DatabaseHelper", "Skipping row " + i + ": " + e.getMessage());
+                }
+                insert.clearBindings();
             }
 
+            db.setTransactionSuccessful();
+            Log.d("DatabaseHelper", "Batch inserted " + ids.length + " transactions");
+
         } catch (Exception e) {
-            Log.e("DatabaseHelper", "Error getting total income: " + e.getMessage(), e);
+            Log.e("DatabaseHelper", "Error adding transactions: " + e.getMessage(), e);
+            Arrays.fill(ids, -1);
         } finally {
-            if (cursor != null) {
-                cursor.close();
+            if (insert != null) {
+                insert.close();
             }
-            if (db != null && db.isOpen()) {
-                db.close();
+            db.endTransaction();
+        }
+
+        // Published after the commit, so listeners never see rows that were rolled back.
+        // One change for the whole batch: listeners reload once instead of merging every row
+        for (long id : ids) {
+            if (id != -1) {
+                publish(DataChange.bulkInserted(dataVersion.incrementAndGet()));
+                break;
             }
         }
 
-        return totalIncome;
+        return ids;
     }
 
+    // ==================== SAVED FILTER METHODS ====================
+
     /**
-     * Get total expense from all EXPENSE transactions
-     * @return Total expense amount
+     * Save a filter under a name, replacing any filter saved with that name.
+     * @return true if successful, false otherwise
      */
-    public double getTotalExpense() {
-        SQLiteDatabase db = null;
-        Cursor cursor = null;
-        double totalExpense = 0;
+    public boolean saveFilter(String name, TransactionFilter filter) {
+        StringBuilder categoryIds = new StringBuilder();
+        for (int id : filter.getCategoryIds()) {
+            if (categoryIds.length() > 0) categoryIds.append(',');
+            categoryIds.append(id);
+        }
+        ContentValues values = new ContentValues();
+        values.put(COL_FILTER_NAME, name);
+        values.put(COL_TYPE, filter.getType());
+        values.put(COL_FILTER_CATEGORY_IDS, categoryIds.toString());
+        values.put(COL_FILTER_MIN_AMOUNT, filter.getMinAmount());
+        values.put(COL_FILTER_MAX_AMOUNT, filter.getMaxAmount());
+        values.put(COL_FILTER_START_TIME, filter.getStartTime());
+        values.put(COL_FILTER_END_TIME, filter.getEndTime());
+        values.put(COL_FILTER_TEXT, filter.getText());
+        values.put(COL_FILTER_SORT, filter.getSort().name());
+        values.put(COL_FILTER_CREATED, System.currentTimeMillis());
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            return db.insertWithOnConflict(TABLE_SAVED_FILTERS, null, values,
+                    SQLiteDatabase.CONFLICT_REPLACE) != -1;
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error saveFilter: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /** Saved filters, most recently saved first. */
+    public List<SavedFilter> getSavedFilters() {
+        List<SavedFilter> filters = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery("SELECT " + COL_FILTER_NAME + ", " + COL_TYPE + ", " +
+                COL_FILTER_CATEGORY_IDS + ", " + COL_FILTER_MIN_AMOUNT + ", " + COL_FILTER_MAX_AMOUNT + ", " +
+                COL_FILTER_START_TIME + ", " + COL_FILTER_END_TIME + ", " + COL_FILTER_TEXT + ", " +
+                COL_FILTER_SORT + " FROM " + TABLE_SAVED_FILTERS +
+                " ORDER BY " + COL_FILTER_CREATED + " DESC", null)) {
+            while (cursor.moveToNext()) {
+                filters.add(new SavedFilter(cursor.getString(0), TransactionFilter.ALL
+                        .withType(cursor.getString(1))
+                        .withCategories(parseIds(cursor.getString(2)))
+                        .withAmountRange(cursor.getLong(3), cursor.getLong(4))
+                        .withDateRange(cursor.getLong(5), cursor.getLong(6))
+                        .withText(cursor.getString(7))
+                        .withSort(parseSort(cursor.getString(8)))));
+            }
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error getSavedFilters: " + e.getMessage(), e);
+        }
+        return filters;
+    }
 
+    public boolean deleteSavedFilter(String name) {
         try {
-            db = this.getReadableDatabase();
+            return this.getWritableDatabase().delete(TABLE_SAVED_FILTERS,
+                    COL_FILTER_NAME + " = ?", new String[]{name}) > 0;
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error deleteSavedFilter: " + e.getMessage(), e);
+            return false;
+        }
+    }
 
-            String query = "SELECT SUM(amount) as total FROM " + TABLE_TRANSACTIONS +
-                    " WHERE type = 'EXPENSE'";
+    private static int[] parseIds(String text) {
+        if (text == null || text.isEmpty()) return new int[0];
+        String[] parts = text.split(",");
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ids[i] = Integer.parseInt(parts[i]);
+        }
+        return ids;
+    }
 
-            cursor = db.rawQuery(query, null);
+    private static TransactionFilter.Sort parseSort(String name) {
+        try {
+            return TransactionFilter.Sort.valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return TransactionFilter.Sort.DATE_DESC;
+        }
+    }
 
-            if (cursor != null && cursor.moveToFirst()) {
-                totalExpense = cursor.getDouble(0);
+    // ==================== CATEGORY METHODS ====================
+
+    /**
+     * All categories, in id order (defaults first, then user-added ones).
+     * Most callers want CategoryRegistry, which caches this list.
+     * @return List of categories, empty on error
+     */
+    public List<Category> getCategories() {
+        List<Category> categories = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        try {
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + COL_ID + ", " + COL_CATEGORY_NAME + " FROM " + TABLE_CATEGORIES +
+                            " ORDER BY " + COL_ID, null);
+            while (cursor.moveToNext()) {
+                categories.add(new Category(cursor.getInt(0), cursor.getString(1)));
             }
+            cursor.close();
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error getCategories: " + e.getMessage(), e);
+        }
+        return categories;
+    }
 
+    /**
+     * Add a user-defined category, or find the existing one with this name.
+     * @param name Category name
+     * @return Category id, or -1 on error
+     */
+    public long addCategory(String name) {
+        try {
+            return getOrCreateCategoryId(this.getWritableDatabase(), name);
         } catch (Exception e) {
-            Log.e("DatabaseHelper", "Error getting total expense: " + e.getMessage(), e);
-        } finally {
-            if (cursor != null) {
-                cursor.close();
-            }
-            if (db != null && db.isOpen()) {
-                db.close();
-            }
+            Log.e("DatabaseHelper", "Error adding category: " + e.getMessage(), e);
+            return -1;
         }
+    }
 
-        return totalExpense;
+    private static long getOrCreateCategoryId(SQLiteDatabase db, String name) {
+        if (name == null) {
+            throw new SQLException("Category name is required");
+        }
+        String[] args = {name};
+        db.execSQL("INSERT OR IGNORE INTO " + TABLE_CATEGORIES +
+                " (" + COL_CATEGORY_NAME + ") VALUES (?)", args);
+        return DatabaseUtils.longForQuery(db,
+                "SELECT " + COL_ID + " FROM " + TABLE_CATEGORIES +
+                        " WHERE " + COL_CATEGORY_NAME + " = ?", args);
+    }
+
+    private static void bindStringOrNull(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
     }
 
     /**
@@ -234,55 +1295,21 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             int rowsDeleted = db.delete(TABLE_TRANSACTIONS, null, null);
 
             Log.d("DatabaseHelper", "Cleared " + rowsDeleted + " transactions");
+            publish(DataChange.cleared(dataVersion.incrementAndGet()));
             return true;
 
         } catch (Exception e) {
             Log.e("DatabaseHelper", "Error clearing transactions: " + e.getMessage(), e);
             return false;
-        } finally {
-            if (db != null && db.isOpen()) {
-                db.close();
-            }
-        }
-    }
-
-    public double getSalary() {
-        SQLiteDatabase db = null;
-        Cursor cursor = null;
-        double salary = 0;
-
-        try {
-            db = this.getReadableDatabase();
-
-            String query = "SELECT value FROM " + TABLE_SETTINGS +
-                    " WHERE key = 'salary'";
-
-            cursor = db.rawQuery(query, null);
-
-            if (cursor != null && cursor.moveToFirst()) {
-                salary = cursor.getDouble(0);
-            }
-
-        } catch (Exception e) {
-            Log.e("DatabaseHelper", "Error getting salary: " + e.getMessage(), e);
-        } finally {
-            if (cursor != null) {
-                cursor.close();
-            }
-            if (db != null && db.isOpen()) {
-                db.close();
-            }
         }
-
-        return salary;
     }
 
     /**
      * Set/Update salary in settings table
-     * @param salary Salary amount to set
+     * @param salary Salary amount to set, in paise
      * @return true if successful, false otherwise
      */
-    public boolean setSalary(double salary) {
+    public boolean setSalary(long salary) {
         SQLiteDatabase db = null;
 
         try {
@@ -302,101 +1329,203 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             }
 
             Log.d("DatabaseHelper", "Salary set to: " + salary);
+            publish(DataChange.salaryChanged(dataVersion.incrementAndGet(), salary));
             return true;
 
         } catch (Exception e) {
             Log.e("DatabaseHelper", "Error setting salary: " + e.getMessage(), e);
             return false;
-        } finally {
-            if (db != null && db.isOpen()) {
-                db.close();
-            }
         }
     }
 
-    // ADD THESE METHODS TO YOUR DatabaseHelper.java if they don't already exist:
+    // ─── Get expense totals for every category at once ───────────────────────────
+    /**
+     * Expense totals per category, see getTotalsByCategory().
+     * @param startTime Start, epoch millis (0 for all time)
+     * @param endTime Exclusive end, epoch millis (Long.MAX_VALUE for all time)
+     * @return Category id to total spent in paise
+     */
+    public SparseLongArray getExpenseTotalsByCategory(long startTime, long endTime) {
+        return getTotalsByCategory("EXPENSE", startTime, endTime);
+    }
 
-    // ─── Get expense total for a specific category ───────────────────────────────
-    public double getExpenseByCategory(String category) {
+    /**
+     * Totals per category for one transaction type, read from daily_totals in
+     * a single GROUP BY query. Works in whole local days: every day touched by
+     * [startTime, endTime) is included. Categories with no rows are absent,
+     * so get(id) returns 0 for them.
+     * @param type INCOME or EXPENSE
+     * @param startTime Start, epoch millis (0 for all time)
+     * @param endTime Exclusive end, epoch millis (Long.MAX_VALUE for all time)
+     * @return Category id to total in paise
+     */
+    public SparseLongArray getTotalsByCategory(String type, long startTime, long endTime) {
         SQLiteDatabase db = this.getReadableDatabase();
-        double total = 0;
+        SparseLongArray totals = new SparseLongArray();
+        if (endTime <= startTime) return totals;
         try {
             Cursor cursor = db.rawQuery(
-                    "SELECT SUM(" + COL_AMOUNT + ") FROM " + TABLE_TRANSACTIONS +
-                            " WHERE " + COL_TYPE + " = 'EXPENSE' AND " + COL_CATEGORY + " = ?",
-                    new String[]{category});
-            if (cursor.moveToFirst() && !cursor.isNull(0)) {
-                total = cursor.getDouble(0);
+                    "SELECT " + COL_CATEGORY_ID + ", SUM(" + COL_SUM + ") FROM " + TABLE_DAILY_TOTALS +
+                            " WHERE " + COL_DAY + " >= ?" +
+                            " AND " + COL_DAY + " <= ?" +
+                            " AND " + COL_TYPE + " = ?" +
+                            " GROUP BY " + COL_CATEGORY_ID,
+                    new String[]{
+                            String.valueOf(dayKey(startTime)),
+                            String.valueOf(dayKey(endTime - 1)),
+                            type
+                    });
+            while (cursor.moveToNext()) {
+                totals.put(cursor.getInt(0), cursor.getLong(1));
             }
             cursor.close();
         } catch (Exception e) {
-            Log.e("DatabaseHelper", "Error getExpenseByCategory: " + e.getMessage(), e);
+            Log.e("DatabaseHelper", "Error getTotalsByCategory: " + e.getMessage(), e);
         }
-        return total;
+        return totals;
     }
 
-    // ══════════════════════════════════════════════════════════════════════
-//  ADD ALL OF THESE METHODS TO DatabaseHelper.java
-//  (Only add methods you don't already have)
-// ══════════════════════════════════════════════════════════════════════
+    // ─── Get expense totals bucketed by day, week or month ──────────────────────
+    /**
+     * Expense totals for consecutive buckets starting at startTime, from a
+     * single grouped range query over the rollups (monthly_totals for months,
+     * daily_totals otherwise). Bucket boundaries are computed with Calendar
+     * in the device time zone, so months and DST-shifted days have their real
+     * local length.
+     * @param startTime Start of the first bucket, epoch millis (align it to local midnight / month start)
+     * @param endTime Exclusive end of the series, epoch millis
+     * @param calendarField Calendar.DAY_OF_YEAR, Calendar.WEEK_OF_YEAR or Calendar.MONTH
+     * @return One total in paise per bucket, oldest first
+     */
+    public long[] getExpenseSeries(long startTime, long endTime, int calendarField) {
+        List<Long> boundaries = new ArrayList<>();
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(startTime);
+        while (cal.getTimeInMillis() < endTime) {
+            boundaries.add(cal.getTimeInMillis());
+            cal.add(calendarField, 1);
+        }
 
-    // ─── 1. Get expense total for a specific category ────────────────────
+        int bucketCount = boundaries.size();
+        long[] series = new long[bucketCount];
+        if (bucketCount == 0) return series;
+
+        boolean monthly = calendarField == Calendar.MONTH;
+        String table = monthly ? TABLE_MONTHLY_TOTALS : TABLE_DAILY_TOTALS;
+        String keyColumn = monthly ? COL_MONTH : COL_DAY;
+
+        // Map each rollup row to its bucket index; keys are longs, so inlining them is safe
+        StringBuilder bucketExpr = new StringBuilder("CASE");
+        for (int i = 1; i < bucketCount; i++) {
+            long boundary = boundaries.get(i);
+            bucketExpr.append(" WHEN ").append(keyColumn).append(" < ")
+                    .append(monthly ? monthKey(boundary) : dayKey(boundary))
+                    .append(" THEN ").append(i - 1);
+        }
+        bucketExpr.append(" ELSE ").append(bucketCount - 1).append(" END");
 
+        long firstKey = monthly ? monthKey(startTime) : dayKey(startTime);
+        long lastKey = monthly ? monthKey(endTime - 1) : dayKey(endTime - 1);
 
-    // ─── 2. Get expense total for a specific month/year ──────────────────
-//  year  = e.g. 2025
-//  month = 0-based (Calendar.JANUARY = 0, Calendar.DECEMBER = 11)
-    public double getMonthlyExpense(int year, int month) {
         SQLiteDatabase db = this.getReadableDatabase();
-        double total = 0;
         try {
-            java.util.Calendar start = java.util.Calendar.getInstance();
-            start.set(year, month, 1, 0, 0, 0);
-            start.set(java.util.Calendar.MILLISECOND, 0);
-
-            java.util.Calendar end = (java.util.Calendar) start.clone();
-            end.add(java.util.Calendar.MONTH, 1);
-
             Cursor cursor = db.rawQuery(
-                    "SELECT SUM(" + COL_AMOUNT + ") FROM " + TABLE_TRANSACTIONS +
-                            " WHERE " + COL_TYPE + " = 'EXPENSE'" +
-                            " AND " + COL_TIMESTAMP + " >= ?" +
-                            " AND " + COL_TIMESTAMP + " < ?",
+                    "SELECT " + bucketExpr + " AS bucket, SUM(" + COL_SUM + ")" +
+                            " FROM " + table +
+                            " WHERE " + keyColumn + " >= ?" +
+                            " AND " + keyColumn + " <= ?" +
+                            " AND " + COL_TYPE + " = 'EXPENSE'" +
+                            " GROUP BY bucket",
                     new String[]{
-                            String.valueOf(start.getTimeInMillis()),
-                            String.valueOf(end.getTimeInMillis())
+                            String.valueOf(firstKey),
+                            String.valueOf(lastKey)
                     });
-            if (cursor.moveToFirst() && !cursor.isNull(0)) {
-                total = cursor.getDouble(0);
+            while (cursor.moveToNext()) {
+                series[cursor.getInt(0)] = cursor.getLong(1);
             }
             cursor.close();
         } catch (Exception e) {
-            Log.e("DatabaseHelper", "Error getMonthlyExpense: " + e.getMessage(), e);
+            Log.e("DatabaseHelper", "Error getExpenseSeries: " + e.getMessage(), e);
         }
-        return total;
+        return series;
+    }
+
+    // ─── Stream rollup rows into a TransactionAggregator ─────────────────────────
+    /**
+     * Feed every daily_totals row of the local days touched by [startTime,
+     * endTime) to the aggregator, in one range query in day order. Each row
+     * is (day key, type, category, sum, count), so the aggregator's bucket
+     * starts must be day keys too (see dayKey()).
+     */
+    public void aggregateDays(long startTime, long endTime, TransactionAggregator aggregator) {
+        if (endTime <= startTime) return;
+        aggregateRollup(TABLE_DAILY_TOTALS, COL_DAY, dayKey(startTime), dayKey(endTime - 1), aggregator);
     }
-    public double getExpenseForRange(long startTime, long endTime) {
+
+    /** Same as aggregateDays(), over monthly_totals; times are month keys (see monthKey()). */
+    public void aggregateMonths(long startTime, long endTime, TransactionAggregator aggregator) {
+        if (endTime <= startTime) return;
+        aggregateRollup(TABLE_MONTHLY_TOTALS, COL_MONTH, monthKey(startTime), monthKey(endTime - 1), aggregator);
+    }
+
+    private void aggregateRollup(String table, String keyColumn, long firstKey, long lastKey,
+                                 TransactionAggregator aggregator) {
         SQLiteDatabase db = this.getReadableDatabase();
-        double total = 0;
-        try {
-            Cursor cursor = db.rawQuery(
-                    "SELECT SUM(" + COL_AMOUNT + ") FROM " + TABLE_TRANSACTIONS +
-                            " WHERE " + COL_TYPE + " = 'EXPENSE'" +
-                            " AND " + COL_TIMESTAMP + " >= ?" +
-                            " AND " + COL_TIMESTAMP + " < ?",
-                    new String[]{
-                            String.valueOf(startTime),
-                            String.valueOf(endTime)
-                    });
-            if (cursor.moveToFirst() && !cursor.isNull(0)) {
-                total = cursor.getDouble(0);
+        try (Cursor cursor = db.rawQuery(
+                "SELECT " + keyColumn + ", " + COL_TYPE + ", " + COL_CATEGORY_ID + ", " +
+                        COL_SUM + ", " + COL_COUNT + " FROM " + table +
+                        " WHERE " + keyColumn + " >= ? AND " + keyColumn + " <= ?",
+                new String[]{String.valueOf(firstKey), String.valueOf(lastKey)})) {
+            while (cursor.moveToNext()) {
+                aggregator.add(cursor.getLong(0), TransactionAggregator.typeOf(cursor.getString(1)),
+                        cursor.getInt(2), cursor.getLong(3), cursor.getInt(4));
             }
-            cursor.close();
         } catch (Exception e) {
-            Log.e("DatabaseHelper", "Error getExpenseForRange: " + e.getMessage(), e);
+            Log.e("DatabaseHelper", "Error aggregateRollup: " + e.getMessage(), e);
         }
-        return total;
     }
 
-
-}
\ No newline at end of file
+    /**
+     * Everything the Reports screen shows, as of {@code now}: balance totals,
+     * all-time expense per category, the monthly and the daily series. Two
+     * aggregation passes: every monthly rollup row (categories and the monthly
+     * series) and this week's daily rows.
+     * The versions are read first, so a write landing during the reads leaves
+     * the snapshot looking older than its figures, never newer.
+     */
+    public ReportSnapshot getReportSnapshot(long now) {
+        long dataVersion = getDataVersion();
+        long changeCount = getChangeCount();
+        BalanceSnapshot balance = getBalanceSnapshot();
+
+        Calendar cal = Calendar.getInstance();
+        long monthStart = ReportSnapshot.firstMonthStart(now);
+        cal.setTimeInMillis(monthStart);
+        long[] monthKeys = new long[ReportSnapshot.MONTHS];
+        for (int i = 0; i < monthKeys.length; i++) {
+            monthKeys[i] = monthKey(cal.getTimeInMillis());
+            cal.add(Calendar.MONTH, 1);
+        }
+        TransactionAggregator months = new TransactionAggregator(monthKeys, monthKey(cal.getTimeInMillis()));
+        aggregateMonths(0, Long.MAX_VALUE, months);
+
+        long weekStart = ReportSnapshot.weekStart(now);
+        cal.setTimeInMillis(weekStart);
+        long[] dayKeys = new long[ReportSnapshot.DAYS];
+        for (int i = 0; i < dayKeys.length; i++) {
+            dayKeys[i] = dayKey(cal.getTimeInMillis());
+            cal.add(Calendar.DAY_OF_YEAR, 1);
+        }
+        TransactionAggregator days = new TransactionAggregator(dayKeys, dayKey(cal.getTimeInMillis()));
+        aggregateDays(weekStart, cal.getTimeInMillis(), days);
+
+        int expense = TransactionAggregator.EXPENSE;
+        int[] categoryIds = months.getCategoryIds(expense);
+        long[] categoryExpense = new long[categoryIds.length];
+        for (int i = 0; i < categoryIds.length; i++) {
+            categoryExpense[i] = months.getCategoryTotal(expense, categoryIds[i]);
+        }
+        return new ReportSnapshot(dataVersion, changeCount, balance, categoryIds, categoryExpense,
+                monthStart, months.getSeries(expense), weekStart, days.getSeries(expense));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.pocketplan;
+
+import android.app.Application;
+import android.content.pm.ApplicationInfo;
+import android.os.StrictMode;
+import android.util.Log;
+
+public class PocketPlanApplication extends Application {
+
+    private static final String TAG = "PocketPlanApplication";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            enableStrictMode();
+        }
+
+        // Load categories in the background so the first screen finds them ready
+        TransactionRepository.getInstance(this).getCategories(registry -> {
+            if (registry != null) Log.d(TAG, "Loaded " + registry.getAll().size() + " categories");
+        });
+    }
+
+    private void enableStrictMode() {
+        // SharedPreferences are still read on the main thread, so general disk
+        // access is only logged; database access is made fatal instead.
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectNetwork()
+                .penaltyLog()
+                .build());
+        StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                .detectLeakedSqlLiteObjects()
+                .detectLeakedClosableObjects()
+                .penaltyLog()
+                .build());
+        DatabaseHelper.setFailOnMainThread(true);
+        Log.d(TAG, "StrictMode enabled");
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.pocketplan;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.pocketplan.models.ReportSnapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Keeps the last ReportSnapshot in memory and in a file under the cache
+ * directory. The memory copy is valid while DatabaseHelper.getDataVersion()
+ * is unchanged, which costs no query; the file copy, read once per process,
+ * is checked against DatabaseHelper.getChangeCount(). Either way the
+ * snapshot's month and week must still be the current ones.
+ */
+final class ReportCache {
+
+    private static final String TAG = "ReportCache";
+    private static final String FILE_NAME = "report_snapshot";
+
+    private final DatabaseHelper db;
+    private final File file;
+    private volatile ReportSnapshot cached;
+
+    ReportCache(Context context, DatabaseHelper db) {
+        this.db = db;
+        this.file = new File(context.getCacheDir(), FILE_NAME);
+    }
+
+    /** The in-memory snapshot if it is still current, else null. Safe on the main thread. */
+    ReportSnapshot peek() {
+        ReportSnapshot snapshot = cached;
+        if (snapshot != null && snapshot.getDataVersion() == db.getDataVersion()
+                && snapshot.isCurrent(System.currentTimeMillis())) {
+            return snapshot;
+        }
+        return null;
+    }
+
+    /** A current snapshot from memory, the file or the database, in that order. Background threads only. */
+    synchronized ReportSnapshot get() {
+        ReportSnapshot snapshot = peek();
+        if (snapshot != null) return snapshot;
+
+        long now = System.currentTimeMillis();
+        if (cached == null) {
+            // Read before the change count, as in DatabaseHelper.getReportSnapshot()
+            long dataVersion = db.getDataVersion();
+            snapshot = readFile(dataVersion);
+            if (snapshot != null && (snapshot.getChangeCount() != db.getChangeCount()
+                    || !snapshot.isCurrent(now))) {
+                snapshot = null;
+            }
+        }
+        if (snapshot == null) {
+            snapshot = db.getReportSnapshot(now);
+            writeFile(snapshot);
+        }
+        cached = snapshot;
+        return snapshot;
+    }
+
+    private ReportSnapshot readFile(long dataVersion) {
+        if (!file.exists()) return null;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            return ReportSnapshot.readFrom(in, dataVersion);
+        } catch (IOException e) {
+            Log.w(TAG, "Ignoring unreadable report cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Written to a temporary file and renamed, so a reader never sees half a snapshot
+    private void writeFile(ReportSnapshot snapshot) {
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp)))) {
+            snapshot.writeTo(out);
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing report cache: " + e.getMessage(), e);
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            Log.e(TAG, "Error replacing report cache");
+            temp.delete();
+        }
+    }
+}
@@ -10,6 +10,10 @@ import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 
+import com.example.pocketplan.models.BalanceSnapshot;
+import com.example.pocketplan.models.ReportSnapshot;
+import com.example.pocketplan.utils.Money;
+import com.example.pocketplan.utils.MoneyFormatter;
 import com.github.mikephil.charting.animation.Easing;
 import com.github.mikephil.charting.charts.BarChart;
 import com.github.mikephil.charting.charts.LineChart;
@@ -38,7 +42,8 @@ import java.util.Locale;
 public class ReportsActivity extends AppCompatActivity {
 
     private static final String TAG = "ReportsActivity";
-    private DatabaseHelper databaseHelper;
+    private TransactionRepository repository;
+    private ReportSnapshot shown; // what the charts currently reflect
 
     private TextView tvReportIncome, tvReportExpense, tvReportSavings;
     private PieChart pieChart, categoryPieChart;
@@ -58,10 +63,9 @@ public class ReportsActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_reports);
-        databaseHelper = new DatabaseHelper(this);
+        repository = TransactionRepository.getInstance(this);
         setupToolbar();
         initializeViews();
-        loadAllData();
         MaterialButton btnViewAll = findViewById(R.id.btnViewAllTransactions);
         if (btnViewAll != null)
             btnViewAll.setOnClickListener(v -> startActivity(new Intent(this, TransactionsActivity.class)));
@@ -70,7 +74,19 @@ public class ReportsActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        loadAllData();
+        // Nothing written since the last visit: draw from memory without a query
+        ReportSnapshot cached = repository.peekReportSnapshot();
+        if (cached != null) {
+            showReport(cached);
+            return;
+        }
+        repository.getReportSnapshot(snapshot -> {
+            if (snapshot == null || isFinishing()) return;
+            // Two reads may finish out of order; keep the newer
+            if (shown == null || snapshot.getDataVersion() >= shown.getDataVersion()) {
+                showReport(snapshot);
+            }
+        });
     }
 
     private void setupToolbar() {
@@ -111,20 +127,27 @@ public class ReportsActivity extends AppCompatActivity {
         tvExpenseCount      = findViewById(R.id.tvExpenseCount);
     }
 
-    private void loadAllData() {
+    private void showReport(ReportSnapshot snapshot) {
+        if (snapshot == shown) return; // already on screen; skip redrawing and re-animating
+        shown = snapshot;
+        showSummary(snapshot.getBalance());
+        showCategories(snapshot);
+        showMonthlyBarChart(snapshot.getMonthlyExpense(), monthLabels(snapshot.getMonthStart()));
+        showWeeklyLineChart(snapshot.getDailyExpense());
+    }
+
+    private void showSummary(BalanceSnapshot snapshot) {
         try {
-            double salary      = databaseHelper.getSalary();
-            double income      = databaseHelper.getTotalIncome();
-            double expense     = databaseHelper.getTotalExpense();
-            double totalIncome = salary + income;
-            double savings     = totalIncome - expense;
+            long expense     = snapshot.getTotalExpense();
+            long totalIncome = snapshot.getSalary() + snapshot.getTotalIncome();
+            long savings     = totalIncome - expense;
 
             tvReportIncome.setText(fmt(totalIncome));
             tvReportExpense.setText(fmt(expense));
             tvReportSavings.setText(fmt(savings));
 
             if (totalIncome > 0) {
-                int pct = (int) Math.max(0, Math.min((savings / totalIncome) * 100, 100));
+                int pct = (int) Math.max(0, Math.min(savings * 100 / totalIncome, 100));
                 progressSavingsRate.setProgress(pct);
                 tvSavingsRateLabel.setText(pct + "% of income saved");
             } else {
@@ -132,17 +155,33 @@ public class ReportsActivity extends AppCompatActivity {
                 tvSavingsRateLabel.setText("No income recorded yet");
             }
 
-            double food          = databaseHelper.getExpenseByCategory("Food & Dining");
-            double transport     = databaseHelper.getExpenseByCategory("Transportation");
-            double shopping      = databaseHelper.getExpenseByCategory("Shopping");
-            double bills         = databaseHelper.getExpenseByCategory("Bills & Utilities");
-            double entertainment = databaseHelper.getExpenseByCategory("Entertainment");
-            double health        = databaseHelper.getExpenseByCategory("Healthcare");
-            double travel        = databaseHelper.getExpenseByCategory("Travel");
-            double groceries     = databaseHelper.getExpenseByCategory("Groceries");
-            double other         = databaseHelper.getExpenseByCategory("Other") + groceries;
-
-            double maxCat = Math.max(1, Math.max(food,
+            tvTotalTransactions.setText(String.valueOf(snapshot.getTransactionCount()));
+            tvIncomeCount.setText(String.valueOf(snapshot.getIncomeCount()));
+            tvExpenseCount.setText(String.valueOf(snapshot.getExpenseCount()));
+
+            setupIncomeExpensePieChart(totalIncome, expense);
+
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading report summary: " + e.getMessage(), e);
+        }
+    }
+
+    private void showCategories(ReportSnapshot report) {
+        try {
+            CategoryRegistry categories = CategoryRegistry.getInstance(this);
+            long food          = report.getCategoryExpense(categories.idOf(CategoryRegistry.FOOD));
+            long transport     = report.getCategoryExpense(categories.idOf(CategoryRegistry.TRANSPORT));
+            long shopping      = report.getCategoryExpense(categories.idOf(CategoryRegistry.SHOPPING));
+            long bills         = report.getCategoryExpense(categories.idOf(CategoryRegistry.BILLS));
+            long entertainment = report.getCategoryExpense(categories.idOf(CategoryRegistry.ENTERTAINMENT));
+            long health        = report.getCategoryExpense(categories.idOf(CategoryRegistry.HEALTHCARE));
+            long travel        = report.getCategoryExpense(categories.idOf(CategoryRegistry.TRAVEL));
+
+            // Every category without its own row (Groceries, Education, user-added) counts as Other
+            long other = report.getTotalCategoryExpense() - food - transport - shopping - bills
+                    - entertainment - health - travel;
+
+            long maxCat = Math.max(1, Math.max(food,
                     Math.max(transport, Math.max(shopping,
                             Math.max(bills, Math.max(entertainment,
                                     Math.max(health, Math.max(travel, other))))))));
@@ -156,26 +195,14 @@ public class ReportsActivity extends AppCompatActivity {
             updateCategoryRow(tvCatTravel,        progressCatTravel,        travel,        maxCat);
             updateCategoryRow(tvCatOther,         progressCatOther,         other,         maxCat);
 
-            List<com.example.pocketplan.models.Transaction> all = databaseHelper.getAllTransactions();
-            int incomeCount = 0, expenseCount = 0;
-            for (com.example.pocketplan.models.Transaction t : all) {
-                if (t.isIncome()) incomeCount++; else expenseCount++;
-            }
-            tvTotalTransactions.setText(String.valueOf(all.size()));
-            tvIncomeCount.setText(String.valueOf(incomeCount));
-            tvExpenseCount.setText(String.valueOf(expenseCount));
-
-            setupIncomeExpensePieChart(totalIncome, expense);
             setupCategoryPieChart(food, transport, shopping, bills, entertainment, health, travel, other);
-            setupMonthlyBarChart();
-            setupWeeklyLineChart();
 
         } catch (Exception e) {
-            Log.e(TAG, "Error loading report data: " + e.getMessage(), e);
+            Log.e(TAG, "Error loading category report: " + e.getMessage(), e);
         }
     }
 
-    private void setupIncomeExpensePieChart(double income, double expense) {
+    private void setupIncomeExpensePieChart(long income, long expense) {
         List<PieEntry> entries = new ArrayList<>();
         if (income > 0)  entries.add(new PieEntry((float) income,  "Income"));
         if (expense > 0) entries.add(new PieEntry((float) expense, "Expense"));
@@ -206,9 +233,9 @@ public class ReportsActivity extends AppCompatActivity {
         pieChart.invalidate();
     }
 
-    private void setupCategoryPieChart(double food, double transport, double shopping,
-                                       double bills, double entertainment, double health,
-                                       double travel, double other) {
+    private void setupCategoryPieChart(long food, long transport, long shopping,
+                                       long bills, long entertainment, long health,
+                                       long travel, long other) {
         List<PieEntry> entries = new ArrayList<>();
         if (food > 0)          entries.add(new PieEntry((float) food,          "Food"));
         if (transport > 0)     entries.add(new PieEntry((float) transport,     "Transport"));
@@ -249,20 +276,22 @@ public class ReportsActivity extends AppCompatActivity {
         categoryPieChart.invalidate();
     }
 
-    private void setupMonthlyBarChart() {
+    private static String[] monthLabels(long monthStart) {
         Calendar cal = Calendar.getInstance();
-        List<BarEntry> entries = new ArrayList<>();
-        String[] monthLabels = new String[6];
+        cal.setTimeInMillis(monthStart);
+        String[] monthLabels = new String[ReportSnapshot.MONTHS];
         SimpleDateFormat monthFmt = new SimpleDateFormat("MMM", Locale.getDefault());
+        for (int i = 0; i < monthLabels.length; i++) {
+            monthLabels[i] = monthFmt.format(cal.getTime());
+            cal.add(Calendar.MONTH, 1);
+        }
+        return monthLabels;
+    }
 
-        for (int i = 5; i >= 0; i--) {
-            Calendar mc = (Calendar) cal.clone();
-            mc.add(Calendar.MONTH, -i);
-            int month = mc.get(Calendar.MONTH) + 1;
-            int year  = mc.get(Calendar.YEAR);
-            double val = databaseHelper.getMonthlyExpense(month, year);
-            entries.add(new BarEntry(5 - i, (float) val));
-            monthLabels[5 - i] = monthFmt.format(mc.getTime());
+    private void showMonthlyBarChart(long[] monthly, String[] monthLabels) {
+        List<BarEntry> entries = new ArrayList<>();
+        for (int i = 0; i < monthly.length; i++) {
+            entries.add(new BarEntry(i, (float) Money.toMajor(monthly[i])));
         }
 
         BarDataSet ds = new BarDataSet(entries, "Expenses");
@@ -298,25 +327,11 @@ public class ReportsActivity extends AppCompatActivity {
         barChartMonthly.invalidate();
     }
 
-    private void setupWeeklyLineChart() {
-        Calendar cal = Calendar.getInstance();
-        int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
-        int daysFromMon = (dayOfWeek == Calendar.SUNDAY) ? 6 : (dayOfWeek - Calendar.MONDAY);
-        cal.add(Calendar.DAY_OF_YEAR, -daysFromMon);
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-
+    private void showWeeklyLineChart(long[] daily) {
         String[] dayLabels = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
         List<Entry> entries = new ArrayList<>();
-
-        for (int i = 0; i < 7; i++) {
-            long dayStart = cal.getTimeInMillis();
-            cal.add(Calendar.DAY_OF_YEAR, 1);
-            long dayEnd = cal.getTimeInMillis() - 1;
-            double val = databaseHelper.getExpenseForRange(dayStart, dayEnd);
-            entries.add(new Entry(i, (float) val));
+        for (int i = 0; i < daily.length; i++) {
+            entries.add(new Entry(i, (float) Money.toMajor(daily[i])));
         }
 
         LineDataSet ds = new LineDataSet(entries, "Daily Spending");
@@ -356,18 +371,12 @@ public class ReportsActivity extends AppCompatActivity {
         lineChartWeekly.invalidate();
     }
 
-    private void updateCategoryRow(TextView tv, ProgressBar pb, double amount, double max) {
+    private void updateCategoryRow(TextView tv, ProgressBar pb, long amount, long max) {
         tv.setText(fmt(amount));
-        pb.setProgress((int) ((amount / max) * 100));
+        pb.setProgress((int) (amount * 100 / max));
     }
 
-    private String fmt(double amount) {
-        return String.format(Locale.getDefault(), "Rs %.0f", amount);
-    }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (databaseHelper != null) databaseHelper.close();
+    private String fmt(long amount) {
+        return MoneyFormatter.getInstance().formatWhole(amount);
     }
 }
\ No newline at end of file
@@ -0,0 +1,285 @@
+package com.example.pocketplan;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import android.util.SparseLongArray;
+
+import com.example.pocketplan.models.BalanceSnapshot;
+import com.example.pocketplan.models.DataChange;
+import com.example.pocketplan.models.ReportSnapshot;
+import com.example.pocketplan.models.SavedFilter;
+import com.example.pocketplan.models.Transaction;
+import com.example.pocketplan.models.TransactionColumns;
+import com.example.pocketplan.models.TransactionFilter;
+import com.example.pocketplan.notifications.BudgetNotificationChecker;
+import com.example.pocketplan.notifications.LowBalanceChecker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs DatabaseHelper work on background threads and delivers results on the
+ * main thread. Screens use this instead of calling DatabaseHelper directly.
+ *
+ * Reads share a small pool (WAL lets them run alongside a write); writes go
+ * through a single thread so they apply in the order they were requested.
+ * The read queue is bounded; the write queue is not, so a write is never
+ * dropped. Every task also makes sure CategoryRegistry is loaded, so callbacks
+ * can use CategoryRegistry.getInstance() without disk access.
+ *
+ * A callback is always called: if a read is dropped or a task fails, it
+ * receives a failure result instead: null for reads, -1 or false for writes.
+ */
+public final class TransactionRepository {
+
+    private static final String TAG = "TransactionRepository";
+
+    private static final int READ_THREADS = 2;
+    private static final int READ_QUEUE_CAPACITY = 64;
+
+    /** Receives a result on the main thread; see the class comment for failures. */
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private static TransactionRepository instance;
+
+    private final Context appContext;
+    private final DatabaseHelper db;
+    private final ExecutorService readExecutor;
+    private final ExecutorService writeExecutor;
+    private final ReportCache reportCache;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<DatabaseHelper.ChangeListener> changeListeners = new ArrayList<>(); // main thread only
+
+    public static synchronized TransactionRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new TransactionRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private TransactionRepository(Context appContext) {
+        this.appContext = appContext;
+        this.db = DatabaseHelper.getInstance(appContext);
+        this.readExecutor = newExecutor("db-read", READ_THREADS, new ArrayBlockingQueue<>(READ_QUEUE_CAPACITY));
+        this.writeExecutor = newExecutor("db-write", 1, new LinkedBlockingQueue<>());
+        this.reportCache = new ReportCache(appContext, db);
+        db.addChangeListener(change -> mainHandler.post(() -> dispatch(change)));
+    }
+
+    private static ExecutorService newExecutor(String name, int threads, BlockingQueue<Runnable> queue) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                30, TimeUnit.SECONDS, queue, factory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // ─── Reads ───────────────────────────────────────────────────────────────────
+
+    /** Loads the category registry; handy for screens that only need categories. */
+    public void getCategories(Callback<CategoryRegistry> callback) {
+        submit(readExecutor, () -> CategoryRegistry.getInstance(appContext), null, callback);
+    }
+
+    public void getBalanceSnapshot(Callback<BalanceSnapshot> callback) {
+        submit(readExecutor, db::getBalanceSnapshot, null, callback);
+    }
+
+    /** See DatabaseHelper.getTransactionsPage(). */
+    public void getTransactionsPage(TransactionFilter filter, Transaction after, int limit,
+                                    Callback<List<Transaction>> callback) {
+        submit(readExecutor, () -> db.getTransactionsPage(filter, after, limit), null, callback);
+    }
+
+    /** See DatabaseHelper.getTransactionColumns(). */
+    public void getTransactionColumns(TransactionFilter filter, Transaction after, int limit,
+                                      Callback<TransactionColumns> callback) {
+        submit(readExecutor, () -> db.getTransactionColumns(filter, after, limit), null, callback);
+    }
+
+    /** See DatabaseHelper.searchTransactions(). */
+    public void searchTransactions(String text, TransactionFilter filter, Transaction after, int limit,
+                                   Callback<List<Transaction>> callback) {
+        submit(readExecutor, () -> db.searchTransactions(text, filter, after, limit), null, callback);
+    }
+
+    /** See DatabaseHelper.getTransactionNote(); the result may be null. */
+    public void getTransactionNote(int id, Callback<String> callback) {
+        submit(readExecutor, () -> db.getTransactionNote(id), null, callback);
+    }
+
+    public void getExpenseTotalsByCategory(long startTime, long endTime,
+                                           Callback<SparseLongArray> callback) {
+        submit(readExecutor, () -> db.getExpenseTotalsByCategory(startTime, endTime), null, callback);
+    }
+
+    /** See DatabaseHelper.getExpenseSeries(). */
+    public void getExpenseSeries(long startTime, long endTime, int calendarField,
+                                 Callback<long[]> callback) {
+        submit(readExecutor, () -> db.getExpenseSeries(startTime, endTime, calendarField), null, callback);
+    }
+
+    /** See ReportCache.get(); usually answered from the cache without a query. */
+    public void getReportSnapshot(Callback<ReportSnapshot> callback) {
+        submit(readExecutor, reportCache::get, null, callback);
+    }
+
+    /** Saved filters, most recently saved first. */
+    public void getSavedFilters(Callback<List<SavedFilter>> callback) {
+        submit(readExecutor, db::getSavedFilters, null, callback);
+    }
+
+    // ─── Writes ──────────────────────────────────────────────────────────────────
+
+    /**
+     * Insert a transaction; a category name that matches no category is added.
+     * @param callback Receives the new row id, or -1 on error
+     */
+    public void addTransaction(String title, String category, long amount, String note,
+                               String type, long timestamp, Callback<Long> callback) {
+        submit(writeExecutor, () -> db.addTransaction(title,
+                CategoryRegistry.getOrAdd(appContext, category),
+                amount, note, type, timestamp), -1L, callback);
+    }
+
+    public void deleteTransaction(int id, Callback<Boolean> callback) {
+        submit(writeExecutor, () -> db.deleteTransaction(id), false, callback);
+    }
+
+    /** Delete every transaction and reset the salary to zero. */
+    public void clearAllData(Callback<Boolean> callback) {
+        submit(writeExecutor, () -> {
+            boolean transactionsCleared = db.clearAllTransactions();
+            boolean salaryCleared = db.setSalary(0);
+            Log.d(TAG, "Transactions cleared: " + transactionsCleared + ", Salary cleared: " + salaryCleared);
+            return transactionsCleared && salaryCleared;
+        }, false, callback);
+    }
+
+    /** Save a filter under a name, replacing one with the same name. */
+    public void saveFilter(String name, TransactionFilter filter, Callback<Boolean> callback) {
+        submit(writeExecutor, () -> db.saveFilter(name, filter), false, callback);
+    }
+
+    public void deleteSavedFilter(String name, Callback<Boolean> callback) {
+        submit(writeExecutor, () -> db.deleteSavedFilter(name), false, callback);
+    }
+
+    /** Run BudgetNotificationChecker after the writes queued so far. */
+    public void checkBudgetAlerts() {
+        submit(writeExecutor, () -> {
+            BudgetNotificationChecker.checkAllCategories(appContext);
+            return null;
+        }, null, null);
+    }
+
+    /** Run LowBalanceChecker after the writes queued so far. */
+    public void checkLowBalance() {
+        submit(writeExecutor, () -> {
+            LowBalanceChecker.check(appContext);
+            return null;
+        }, null, null);
+    }
+
+    /**
+     * Run other database-backed work (e.g. a BroadcastReceiver's) on the read
+     * pool. Runs on the background thread; there is no main-thread callback.
+     * @return false if the queue was full and the task will not run
+     */
+    public boolean runInBackground(Runnable task) {
+        return submit(readExecutor, () -> {
+            task.run();
+            return null;
+        }, null, null);
+    }
+
+    // ─── Change notifications ────────────────────────────────────────────────────
+
+    /**
+     * Register for database changes, delivered on the main thread in the order
+     * they were committed. Call from the main thread; remove in onDestroy().
+     */
+    public void addChangeListener(DatabaseHelper.ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(DatabaseHelper.ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /** See DatabaseHelper.getDataVersion(); an in-memory read, safe on the main thread. */
+    public long getDataVersion() {
+        return db.getDataVersion();
+    }
+
+    /**
+     * The cached report snapshot if the data has not changed since it was
+     * read, else null. An in-memory read, safe on the main thread.
+     */
+    public ReportSnapshot peekReportSnapshot() {
+        return reportCache.peek();
+    }
+
+    private void dispatch(DataChange change) {
+        // Copy, so a listener may unregister itself while being called
+        for (DatabaseHelper.ChangeListener listener : new ArrayList<>(changeListeners)) {
+            listener.onDataChanged(change);
+        }
+    }
+
+    // ─── Plumbing ────────────────────────────────────────────────────────────────
+
+    // Returns false if the task was rejected; the callback still gets the failure result
+    private <T> boolean submit(ExecutorService executor, Callable<T> task, T failure,
+                               Callback<T> callback) {
+        try {
+            executor.execute(() -> {
+                // DatabaseHelper reports its own errors through return values,
+                // so an exception here is unexpected
+                T result;
+                try {
+                    CategoryRegistry.getInstance(appContext);
+                    result = task.call();
+                } catch (Exception e) {
+                    Log.e(TAG, "Background task failed: " + e.getMessage(), e);
+                    result = failure;
+                }
+                deliver(callback, result);
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            Log.e(TAG, "Database queue full, dropping task", e);
+            deliver(callback, failure);
+            return false;
+        }
+    }
+
+    private <T> void deliver(Callback<T> callback, T result) {
+        if (callback != null) {
+            mainHandler.post(() -> callback.onResult(result));
+        }
+    }
+}
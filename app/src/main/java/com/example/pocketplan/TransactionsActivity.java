@@ -1,34 +1,55 @@
 package com.example.pocketplan;
 
+import android.app.ActivityManager;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Base64;
 import android.util.Log;
 import android.view.View;
+import android.view.inputmethod.EditorInfo;
+import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.pocketplan.adapters.TransactionAdapter;
+import com.example.pocketplan.models.BalanceSnapshot;
+import com.example.pocketplan.models.Category;
+import com.example.pocketplan.models.DataChange;
+import com.example.pocketplan.models.SavedFilter;
 import com.example.pocketplan.models.Transaction;
+import com.example.pocketplan.models.TransactionFilter;
+import com.example.pocketplan.utils.Money;
+import com.example.pocketplan.utils.MoneyFormatter;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
+import com.google.android.material.bottomsheet.BottomSheetDialog;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.material.textfield.TextInputEditText;
 
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class TransactionsActivity extends AppCompatActivity
         implements TransactionAdapter.OnTransactionClickListener {
@@ -44,21 +65,46 @@ public class TransactionsActivity extends AppCompatActivity
     private ChipGroup chipGroupFilter;
     private Chip chipAll, chipIncome, chipExpense;
     private MaterialButton btnSort;
+    private MaterialButton btnFilter;
+    private TextInputEditText etSearch;
     private RecyclerView rvTransactions;
     private LinearLayout emptyStateLayout;
     private FloatingActionButton fabAddTransaction;
     private BottomNavigationView bottomNavigation;
 
     // Data
-    private List<Transaction> transactions;
     private TransactionAdapter adapter;
-    private String currentFilter = "ALL";
-    private String currentSort = "DATE_DESC";
+    private LinearLayoutManager layoutManager;
+    private BalanceSnapshot balanceSnapshot = BalanceSnapshot.EMPTY;
+    private boolean hasMorePages;
+    private boolean pageLoading;
+    private boolean snapshotLoading;
+    private int loadGeneration; // bumped on reload so late page results are dropped
+    private int snapshotGeneration;
+    private long loadedVersion = -1; // data version the list and totals reflect
+    private TransactionFilter filter = TransactionFilter.ALL; // chips, filter sheet and sort; never has text
+    private String searchText; // null unless the search box has enough to search for
 
     private static final int ADD_TRANSACTION_REQUEST = 101;
 
-    // Database Helper
-    private DatabaseHelper databaseHelper;
+    // Paging
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 10; // rows from the end that trigger the next page
+
+    // Search-as-you-type: one query once typing pauses, not one per keystroke
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+    private static final int MIN_SEARCH_LENGTH = 2; // the index has 2- and 3-letter prefix entries
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = this::applySearch;
+
+    // Date chips in the filter sheet, other than "All time" and a custom range
+    private static final int[] DATE_PRESETS = {
+            R.id.chipDateMonth, R.id.chipDate30Days, R.id.chipDateYear
+    };
+
+    // Database access (background threads)
+    private TransactionRepository repository;
+    private final DatabaseHelper.ChangeListener changeListener = this::onDataChanged;
 
     // SharedPreferences
     private SharedPreferences prefs;
@@ -68,7 +114,8 @@ public class TransactionsActivity extends AppCompatActivity
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_transactions);
 
-        databaseHelper = new DatabaseHelper(this);
+        repository = TransactionRepository.getInstance(this);
+        repository.addChangeListener(changeListener);
         prefs = getSharedPreferences("UserPrefs", MODE_PRIVATE);
 
         initializeViews();
@@ -84,11 +131,22 @@ public class TransactionsActivity extends AppCompatActivity
     @Override
     protected void onResume() {
         super.onResume();
-        Log.d(TAG, "onResume called - reloading transactions");
-        loadTransactions();
+        // Changes are applied as they happen (see onDataChanged), so this only
+        // catches anything that slipped past the listener
+        if (repository.getDataVersion() != loadedVersion) {
+            Log.d(TAG, "onResume called - data changed, reloading transactions");
+            loadTransactions();
+        }
         loadProfileImage(); // Reload profile image when returning
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        searchHandler.removeCallbacks(searchRunnable);
+        repository.removeChangeListener(changeListener);
+    }
+
     private void initializeViews() {
         tvTransactionCount = findViewById(R.id.tvTransactionCount);
         tvTotalBalance = findViewById(R.id.tvTotalBalance);
@@ -100,6 +158,8 @@ public class TransactionsActivity extends AppCompatActivity
         chipIncome = findViewById(R.id.chipIncome);
         chipExpense = findViewById(R.id.chipExpense);
         btnSort = findViewById(R.id.btnSort);
+        btnFilter = findViewById(R.id.btnFilter);
+        etSearch = findViewById(R.id.etSearch);
         rvTransactions = findViewById(R.id.rvTransactions);
         emptyStateLayout = findViewById(R.id.emptyStateLayout);
         fabAddTransaction = findViewById(R.id.fabAddTransaction);
@@ -127,39 +187,258 @@ public class TransactionsActivity extends AppCompatActivity
     }
 
     private void setupRecyclerView() {
-        transactions = new ArrayList<>();
-        adapter = new TransactionAdapter(this, transactions, this);
-        rvTransactions.setLayoutManager(new LinearLayoutManager(this));
+        // Low-RAM devices keep loaded rows as primitive columns rather than objects
+        ActivityManager activityManager = (ActivityManager) getSystemService(ACTIVITY_SERVICE);
+        adapter = new TransactionAdapter(this, new ArrayList<>(), this,
+                activityManager != null && activityManager.isLowRamDevice());
+        // Each applied update may leave the list short of the prefetch distance
+        adapter.setOnListCommittedListener(() -> rvTransactions.post(this::maybeLoadNextPage));
+        layoutManager = new LinearLayoutManager(this);
+        rvTransactions.setLayoutManager(layoutManager);
         rvTransactions.setAdapter(adapter);
+
+        rvTransactions.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0) maybeLoadNextPage();
+            }
+        });
     }
 
     private void loadTransactions() {
-        try {
-            transactions.clear();
-            List<Transaction> dbTransactions = databaseHelper.getAllTransactions();
+        // Read before the queries are queued, so a write that lands meanwhile is never missed
+        loadedVersion = repository.getDataVersion();
+        loadFirstPage();
+        reloadSnapshot();
+    }
 
-            Log.d(TAG, "Loaded " + dbTransactions.size() + " transactions from database");
+    // First page only; later rows are fetched as the list is scrolled
+    private void loadFirstPage() {
+        int generation = ++loadGeneration;
+        TransactionFilter pageFilter = filter;
+        pageLoading = true;
+
+        if (searchText != null) {
+            String text = searchText;
+            repository.searchTransactions(text, pageFilter, null, PAGE_SIZE, firstPage -> {
+                if (generation != loadGeneration || isFinishing()) return;
+                pageLoading = false;
+                if (firstPage == null) {
+                    hasMorePages = false; // dropped; the next change or filter reloads
+                    return;
+                }
+                hasMorePages = firstPage.size() == PAGE_SIZE;
+                Log.d(TAG, "Search \"" + text + "\": " + firstPage.size() + " results in first page");
+                adapter.updateTransactions(firstPage, pageFilter.getSort());
+            });
+            return;
+        }
 
-            transactions.addAll(dbTransactions);
-            adapter.updateTransactions(transactions);
-            updateUI();
+        if (adapter.isCompact()) {
+            repository.getTransactionColumns(pageFilter, null, PAGE_SIZE, firstPage -> {
+                if (generation != loadGeneration || isFinishing()) return;
+                pageLoading = false;
+                if (firstPage == null) {
+                    hasMorePages = false; // dropped; the next change or filter reloads
+                    return;
+                }
+                hasMorePages = firstPage.size() == PAGE_SIZE;
+                Log.d(TAG, "Loaded first page: " + firstPage.size() + " rows into columns");
+                adapter.updateColumns(firstPage, pageFilter.getSort());
+            });
+            return;
+        }
+
+        repository.getTransactionsPage(pageFilter, null, PAGE_SIZE, firstPage -> {
+            if (generation != loadGeneration || isFinishing()) return;
+            pageLoading = false;
+            if (firstPage == null) {
+                hasMorePages = false; // dropped; the next change or filter reloads
+                return;
+            }
+            hasMorePages = firstPage.size() == PAGE_SIZE;
+
+            Log.d(TAG, "Loaded first page: " + firstPage.size() + " transactions from database");
 
-            if (!transactions.isEmpty()) {
-                Transaction first = transactions.get(0);
+            adapter.updateTransactions(firstPage, pageFilter.getSort());
+
+            if (!firstPage.isEmpty()) {
+                Transaction first = firstPage.get(0);
                 Log.d(TAG, "First transaction: " + first.getTitle() +
-                        ", Category: " + first.getCategory() +
+                        ", Category ID: " + first.getCategoryId() +
                         ", Amount: " + first.getAmount() +
                         ", Type: " + first.getType());
             }
+        });
+    }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading transactions: " + e.getMessage(), e);
-            Toast.makeText(this, "Error loading transactions", Toast.LENGTH_SHORT).show();
+    private void reloadSnapshot() {
+        int generation = ++snapshotGeneration;
+        snapshotLoading = true;
+        repository.getBalanceSnapshot(snapshot -> {
+            if (generation != snapshotGeneration || isFinishing()) return;
+            snapshotLoading = false;
+            if (snapshot == null) return;
+            updateUI(snapshot);
+        });
+    }
+
+    /** Apply a single write to the loaded rows and totals instead of reloading them. */
+    private void onDataChanged(DataChange change) {
+        if (change.getVersion() <= loadedVersion) return; // already part of what was loaded
+        if (pageLoading || snapshotLoading) {
+            // The pending query may or may not include this change; start over
+            loadTransactions();
+            return;
         }
+        loadedVersion = change.getVersion();
+
+        switch (change.getType()) {
+            case INSERTED:
+                if (searchText != null) {
+                    // Whether and where it ranks is the index's call; search again
+                    loadFirstPage();
+                    break;
+                }
+                Transaction inserted = change.getTransaction();
+                Transaction last = adapter.getLastLoadedTransaction();
+                // Rows that sort after the loaded pages arrive with a later page
+                if (filter.matches(inserted) && (!hasMorePages || last == null
+                        || filter.getSort().comparator().compare(inserted, last) < 0)) {
+                    adapter.insertTransaction(inserted);
+                }
+                break;
+            case BULK_INSERTED:
+                // Too many rows to merge one by one; read the first page and totals again
+                loadTransactions();
+                return;
+            case DELETED:
+                adapter.removeTransaction(change.getTransactionId());
+                break;
+            case CLEARED:
+                hasMorePages = false;
+                adapter.updateTransactions(new ArrayList<>(), filter.getSort());
+                break;
+            default:
+                break;
+        }
+
+        BalanceSnapshot snapshot = balanceSnapshot.apply(change);
+        if (snapshot != null) {
+            updateUI(snapshot);
+        } else {
+            reloadSnapshot();
+        }
+    }
+
+    private void maybeLoadNextPage() {
+        if (!hasMorePages || pageLoading) return;
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        // Also covers a filtered list too short to scroll
+        if (lastVisible >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+            loadNextPage();
+        }
+    }
+
+    /** Fetch the rows after the last loaded one, under the current filter and sort. */
+    private void loadNextPage() {
+        Transaction last = adapter.getLastLoadedTransaction();
+        if (last == null) {
+            hasMorePages = false;
+            return;
+        }
+        int generation = loadGeneration;
+        pageLoading = true;
+        if (searchText != null) {
+            // Keyed on the last row submitted to the adapter, which may not be on screen yet
+            repository.searchTransactions(searchText, filter, last, PAGE_SIZE, page -> {
+                if (generation != loadGeneration || isFinishing()) return;
+                pageLoading = false;
+                if (page == null) return; // dropped; the next scroll tries again
+                hasMorePages = page.size() == PAGE_SIZE;
+                adapter.appendTransactions(page);
+            });
+            return;
+        }
+        if (adapter.isCompact()) {
+            repository.getTransactionColumns(filter, last, PAGE_SIZE, page -> {
+                if (generation != loadGeneration || isFinishing()) return;
+                pageLoading = false;
+                if (page == null) return; // dropped; the next scroll tries again
+                hasMorePages = page.size() == PAGE_SIZE;
+                adapter.appendColumns(page);
+            });
+            return;
+        }
+        repository.getTransactionsPage(filter, last, PAGE_SIZE, page -> {
+            if (generation != loadGeneration || isFinishing()) return;
+            pageLoading = false;
+            if (page == null) return; // dropped; the next scroll tries again
+            hasMorePages = page.size() == PAGE_SIZE;
+            adapter.appendTransactions(page);
+        });
+    }
+
+    /** A chip, filter or sort option changed: start again from the first page of the new query. */
+    private void applyFilter(TransactionFilter newFilter) {
+        if (newFilter.equals(filter)) return;
+        filter = newFilter;
+        updateFilterButton();
+        updateTransactionCount();
+        loadFirstPage();
+    }
+
+    /** Run a saved filter: its criteria go to the chips and filter sheet, its text to the search box. */
+    private void applySavedFilter(TransactionFilter saved) {
+        String text = saved.getText();
+        searchHandler.removeCallbacks(searchRunnable);
+        searchText = text != null && text.length() >= MIN_SEARCH_LENGTH ? text : null;
+        filter = saved.withText(null);
+
+        // Set before the views, so their listeners find nothing changed and the page loads once
+        etSearch.setText(text);
+        String type = filter.getType();
+        chipGroupFilter.check("INCOME".equals(type) ? R.id.chipIncome
+                : "EXPENSE".equals(type) ? R.id.chipExpense : R.id.chipAll);
+
+        updateFilterButton();
+        updateTransactionCount();
+        loadFirstPage();
+    }
+
+    /** Search box settled: run the search, or go back to the plain list if it was cleared. */
+    private void applySearch() {
+        String text = etSearch.getText() != null ? etSearch.getText().toString().trim() : "";
+        String newSearch = text.length() >= MIN_SEARCH_LENGTH ? text : null;
+        if (Objects.equals(newSearch, searchText)) return;
+        searchText = newSearch;
+        updateTransactionCount();
+        loadFirstPage();
     }
 
     private void setupClickListeners() {
 
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                searchHandler.removeCallbacks(searchRunnable);
+                searchHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
+            }
+        });
+        etSearch.setOnEditorActionListener((v, actionId, event) -> {
+            if (actionId == EditorInfo.IME_ACTION_SEARCH) {
+                searchHandler.removeCallbacks(searchRunnable);
+                applySearch();
+            }
+            return false;
+        });
+
         // Profile image click - navigate to Profile
         imgProfile.setOnClickListener(v -> {
             Intent intent = new Intent(this, ProfileActivity.class);
@@ -168,19 +447,16 @@ public class TransactionsActivity extends AppCompatActivity
 
         chipGroupFilter.setOnCheckedChangeListener((group, checkedId) -> {
             if (checkedId == R.id.chipAll) {
-                currentFilter = "ALL";
-                adapter.filterByType("ALL");
+                applyFilter(filter.withType(null));
             } else if (checkedId == R.id.chipIncome) {
-                currentFilter = "INCOME";
-                adapter.filterByType("INCOME");
+                applyFilter(filter.withType("INCOME"));
             } else if (checkedId == R.id.chipExpense) {
-                currentFilter = "EXPENSE";
-                adapter.filterByType("EXPENSE");
+                applyFilter(filter.withType("EXPENSE"));
             }
-            updateTransactionCount();
         });
 
         btnSort.setOnClickListener(v -> showSortDialog());
+        btnFilter.setOnClickListener(v -> showFilterDialog());
 
         fabAddTransaction.setOnClickListener(v -> {
             Intent intent = new Intent(this, AddTransactionActivity.class);
@@ -196,71 +472,247 @@ public class TransactionsActivity extends AppCompatActivity
                 "Amount (Low to High)"
         };
 
-        int selectedIndex = getSortSelectedIndex();
+        // Options are listed in TransactionFilter.Sort order
+        int selectedIndex = filter.getSort().ordinal();
 
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Sort By");
         builder.setSingleChoiceItems(sortOptions, selectedIndex, (dialog, which) -> {
-            switch (which) {
-                case 0:
-                    currentSort = "DATE_DESC";
-                    adapter.sortByDate(true);
-                    break;
-                case 1:
-                    currentSort = "DATE_ASC";
-                    adapter.sortByDate(false);
-                    break;
-                case 2:
-                    currentSort = "AMOUNT_DESC";
-                    adapter.sortByAmount(true);
-                    break;
-                case 3:
-                    currentSort = "AMOUNT_ASC";
-                    adapter.sortByAmount(false);
-                    break;
+            TransactionFilter.Sort sort = TransactionFilter.Sort.values()[which];
+            if (sort != filter.getSort()) {
+                applyFilter(filter.withSort(sort));
             }
             dialog.dismiss();
         });
         builder.show();
     }
 
-    private int getSortSelectedIndex() {
-        switch (currentSort) {
-            case "DATE_DESC": return 0;
-            case "DATE_ASC": return 1;
-            case "AMOUNT_DESC": return 2;
-            case "AMOUNT_ASC": return 3;
-            default: return 0;
+    // ─── Filter sheet ────────────────────────────────────────────────────────────
+
+    private void showFilterDialog() {
+        BottomSheetDialog dialog = new BottomSheetDialog(this);
+        dialog.setContentView(R.layout.dialog_transaction_filter);
+
+        ChipGroup chipGroupSaved = dialog.findViewById(R.id.chipGroupSavedFilters);
+        TextView tvSavedLabel = dialog.findViewById(R.id.tvSavedFiltersLabel);
+        ChipGroup chipGroupCategories = dialog.findViewById(R.id.chipGroupCategories);
+        EditText etMinAmount = dialog.findViewById(R.id.etMinAmount);
+        EditText etMaxAmount = dialog.findViewById(R.id.etMaxAmount);
+        ChipGroup chipGroupDate = dialog.findViewById(R.id.chipGroupDate);
+        Chip chipDateCustom = dialog.findViewById(R.id.chipDateCustom);
+        MaterialButton btnApply = dialog.findViewById(R.id.btnApplyFilter);
+        MaterialButton btnClear = dialog.findViewById(R.id.btnClearFilter);
+        MaterialButton btnSave = dialog.findViewById(R.id.btnSaveFilter);
+        if (chipGroupSaved == null || tvSavedLabel == null || chipGroupCategories == null
+                || etMinAmount == null || etMaxAmount == null || chipGroupDate == null
+                || chipDateCustom == null || btnApply == null || btnClear == null || btnSave == null) {
+            return;
+        }
+
+        repository.getCategories(registry -> {
+            if (registry == null) return;
+            for (Category category : registry.getAll()) {
+                Chip chip = new Chip(this);
+                chip.setId(View.generateViewId());
+                chip.setTag(category.getId());
+                chip.setText(category.getName());
+                chip.setCheckable(true);
+                chip.setChecked(filter.hasCategory(category.getId()));
+                chipGroupCategories.addView(chip);
+            }
+        });
+
+        if (filter.getMinAmount() > 0) {
+            etMinAmount.setText(Money.toPlainString(filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() < Long.MAX_VALUE) {
+            etMaxAmount.setText(Money.toPlainString(filter.getMaxAmount()));
+        }
+
+        // Ranges are stored as absolute times; show a preset only if it still matches one
+        int dateChipId = R.id.chipDateAll;
+        if (filter.hasDateRange()) {
+            dateChipId = R.id.chipDateCustom;
+            for (int presetId : DATE_PRESETS) {
+                long[] range = presetRange(presetId);
+                if (range[0] == filter.getStartTime() && range[1] == filter.getEndTime()) {
+                    dateChipId = presetId;
+                }
+            }
+        }
+        if (dateChipId == R.id.chipDateCustom) {
+            SimpleDateFormat format = new SimpleDateFormat("d MMM yyyy", Locale.getDefault());
+            chipDateCustom.setText(format.format(new Date(filter.getStartTime())) + " – "
+                    + format.format(new Date(filter.getEndTime() - 1)));
+            chipDateCustom.setVisibility(View.VISIBLE);
+        }
+        chipGroupDate.check(dateChipId);
+
+        repository.getSavedFilters(savedFilters -> {
+            if (savedFilters == null || savedFilters.isEmpty() || !dialog.isShowing()) return;
+            tvSavedLabel.setVisibility(View.VISIBLE);
+            chipGroupSaved.setVisibility(View.VISIBLE);
+            for (SavedFilter saved : savedFilters) {
+                Chip chip = new Chip(this);
+                chip.setText(saved.getName());
+                chip.setCloseIconVisible(true);
+                chip.setOnClickListener(v -> {
+                    applySavedFilter(saved.getFilter());
+                    dialog.dismiss();
+                });
+                chip.setOnCloseIconClickListener(v -> {
+                    chipGroupSaved.removeView(chip);
+                    repository.deleteSavedFilter(saved.getName(), null);
+                });
+                chipGroupSaved.addView(chip);
+            }
+        });
+
+        btnApply.setOnClickListener(v -> {
+            TransactionFilter newFilter = readFilterDialog(chipGroupCategories, etMinAmount,
+                    etMaxAmount, chipGroupDate);
+            if (newFilter == null) return;
+            applyFilter(newFilter);
+            dialog.dismiss();
+        });
+
+        btnClear.setOnClickListener(v -> {
+            // The type chips and sort have their own controls and stay as they are
+            applyFilter(TransactionFilter.ALL.withType(filter.getType()).withSort(filter.getSort()));
+            dialog.dismiss();
+        });
+
+        btnSave.setOnClickListener(v -> {
+            TransactionFilter newFilter = readFilterDialog(chipGroupCategories, etMinAmount,
+                    etMaxAmount, chipGroupDate);
+            if (newFilter == null) return;
+            dialog.dismiss();
+            applyFilter(newFilter);
+            showSaveFilterDialog(newFilter.withText(searchText));
+        });
+
+        dialog.show();
+    }
+
+    /** The filter the sheet describes, or null (with the field marked) if an amount is invalid. */
+    private TransactionFilter readFilterDialog(ChipGroup chipGroupCategories, EditText etMinAmount,
+                                               EditText etMaxAmount, ChipGroup chipGroupDate) {
+        List<Integer> checkedIds = chipGroupCategories.getCheckedChipIds();
+        int[] categoryIds = new int[checkedIds.size()];
+        for (int i = 0; i < categoryIds.length; i++) {
+            categoryIds[i] = (Integer) chipGroupCategories.findViewById(checkedIds.get(i)).getTag();
+        }
+
+        long minAmount = readAmount(etMinAmount, 0);
+        long maxAmount = readAmount(etMaxAmount, Long.MAX_VALUE);
+        if (minAmount < 0 || maxAmount < 0) return null;
+        if (minAmount > maxAmount) {
+            etMaxAmount.setError("Must be at least the minimum");
+            return null;
         }
+
+        TransactionFilter newFilter = filter.withCategories(categoryIds)
+                .withAmountRange(minAmount, maxAmount);
+        int dateChipId = chipGroupDate.getCheckedChipId();
+        if (dateChipId == R.id.chipDateCustom) {
+            return newFilter; // keeps the current range
+        }
+        long[] range = dateChipId == R.id.chipDateAll || dateChipId == View.NO_ID
+                ? new long[]{0, Long.MAX_VALUE} : presetRange(dateChipId);
+        return newFilter.withDateRange(range[0], range[1]);
     }
 
-    private void updateUI() {
+    /** Paise typed in the field, {@code empty} if blank, or -1 (with an error shown) if invalid. */
+    private static long readAmount(EditText field, long empty) {
+        String text = field.getText().toString().trim();
+        if (text.isEmpty()) return empty;
         try {
-            double totalIncome = databaseHelper.getTotalIncome();
-            double totalExpense = databaseHelper.getTotalExpense();
-            double salary = databaseHelper.getSalary();
+            long paise = Money.parseMinor(text);
+            if (paise >= 0) return paise;
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        field.setError("Enter a valid amount");
+        return -1;
+    }
+
+    /** [start, end) of a date preset chip, from today's date. */
+    private static long[] presetRange(int chipId) {
+        Calendar start = Calendar.getInstance();
+        start.set(Calendar.HOUR_OF_DAY, 0);
+        start.set(Calendar.MINUTE, 0);
+        start.set(Calendar.SECOND, 0);
+        start.set(Calendar.MILLISECOND, 0);
+        Calendar end = (Calendar) start.clone();
+
+        if (chipId == R.id.chipDateMonth) {
+            start.set(Calendar.DAY_OF_MONTH, 1);
+            end.setTimeInMillis(start.getTimeInMillis());
+            end.add(Calendar.MONTH, 1);
+        } else if (chipId == R.id.chipDateYear) {
+            start.set(Calendar.DAY_OF_YEAR, 1);
+            end.setTimeInMillis(start.getTimeInMillis());
+            end.add(Calendar.YEAR, 1);
+        } else {
+            // Last 30 days, today included
+            end.add(Calendar.DAY_OF_MONTH, 1);
+            start.add(Calendar.DAY_OF_MONTH, -29);
+        }
+        return new long[]{start.getTimeInMillis(), end.getTimeInMillis()};
+    }
+
+    private void showSaveFilterDialog(TransactionFilter toSave) {
+        EditText etName = new EditText(this);
+        etName.setHint("Name");
+        etName.setSingleLine(true);
+
+        AlertDialog dialog = new AlertDialog.Builder(this)
+                .setTitle("Save Filter")
+                .setView(etName)
+                .setPositiveButton("Save", null)
+                .setNegativeButton("Cancel", null)
+                .create();
+        dialog.setOnShowListener(d -> dialog.getButton(AlertDialog.BUTTON_POSITIVE).setOnClickListener(v -> {
+            String name = etName.getText().toString().trim();
+            if (name.isEmpty()) {
+                etName.setError("Enter a name");
+                return;
+            }
+            repository.saveFilter(name, toSave, saved -> Toast.makeText(this,
+                    saved ? "Filter saved" : "Failed to save filter", Toast.LENGTH_SHORT).show());
+            dialog.dismiss();
+        }));
+        dialog.show();
+    }
 
-            double balance = salary + totalIncome - totalExpense;
+    private void updateFilterButton() {
+        int count = filter.getCriteriaCount();
+        btnFilter.setText(count > 0 ? "Filter (" + count + ")" : "Filter");
+    }
 
-            Log.d(TAG, "Balance calculation - Salary: " + salary +
-                    ", Income: " + totalIncome +
-                    ", Expense: " + totalExpense +
-                    ", Total Balance: " + balance);
+    private void updateUI(BalanceSnapshot snapshot) {
+        try {
+            balanceSnapshot = snapshot;
+
+            Log.d(TAG, "Balance calculation - Salary: " + snapshot.getSalary() +
+                    ", Income: " + snapshot.getTotalIncome() +
+                    ", Expense: " + snapshot.getTotalExpense() +
+                    ", Total Balance: " + snapshot.getBalance());
 
-            tvTotalBalance.setText(String.format(Locale.getDefault(), "₹%.2f", balance));
-            tvTotalIncome.setText(String.format(Locale.getDefault(), "₹%.2f", totalIncome));
-            tvTotalExpense.setText(String.format(Locale.getDefault(), "₹%.2f", totalExpense));
+            tvTotalBalance.setText(MoneyFormatter.getInstance().format(snapshot.getBalance()));
+            tvTotalIncome.setText(MoneyFormatter.getInstance().format(snapshot.getTotalIncome()));
+            tvTotalExpense.setText(MoneyFormatter.getInstance().format(snapshot.getTotalExpense()));
 
             updateTransactionCount();
 
-            if (transactions.isEmpty()) {
+            if (snapshot.getTransactionCount() == 0) {
                 emptyStateLayout.setVisibility(View.VISIBLE);
                 rvTransactions.setVisibility(View.GONE);
                 Log.d(TAG, "No transactions to display - showing empty state");
             } else {
                 emptyStateLayout.setVisibility(View.GONE);
                 rvTransactions.setVisibility(View.VISIBLE);
-                Log.d(TAG, "Displaying " + transactions.size() + " transactions");
+                Log.d(TAG, "Displaying " + adapter.getItemCount() + " loaded transactions");
             }
 
         } catch (Exception e) {
@@ -269,11 +721,26 @@ public class TransactionsActivity extends AppCompatActivity
     }
 
     private void updateTransactionCount() {
-        int count = adapter.getItemCount();
+        if (searchText != null || filter.getCriteriaCount() > 0) {
+            // The snapshot only counts by type, and paging means the adapter holds a partial count
+            tvTransactionCount.setText("Filtered transactions");
+            return;
+        }
+
+        // Count from the database, not the adapter, which only holds the pages loaded so far
+        int count;
+        String type = filter.getType();
+        if ("INCOME".equals(type)) {
+            count = balanceSnapshot.getIncomeCount();
+        } else if ("EXPENSE".equals(type)) {
+            count = balanceSnapshot.getExpenseCount();
+        } else {
+            count = balanceSnapshot.getTransactionCount();
+        }
         String text = count + (count == 1 ? " transaction" : " transactions");
 
-        if (!currentFilter.equals("ALL")) {
-            text += " (" + currentFilter.toLowerCase() + ")";
+        if (type != null) {
+            text += " (" + type.toLowerCase() + ")";
         } else {
             text += " this month";
         }
@@ -285,21 +752,29 @@ public class TransactionsActivity extends AppCompatActivity
         super.onActivityResult(requestCode, resultCode, data);
 
         if (requestCode == ADD_TRANSACTION_REQUEST && resultCode == RESULT_OK) {
-            Log.d(TAG, "Transaction added successfully - reloading");
-            loadTransactions();
+            // The new row was already inserted through onDataChanged()
+            Log.d(TAG, "Transaction added successfully");
         }
     }
 
     @Override
     public void onTransactionClick(Transaction transaction) {
+        // List rows are loaded without notes; fetch this one's for the dialog
+        repository.getTransactionNote(transaction.getId(), note -> {
+            if (isFinishing()) return;
+            showTransactionDetails(transaction, note);
+        });
+    }
+
+    private void showTransactionDetails(Transaction transaction, String note) {
         new AlertDialog.Builder(this)
                 .setTitle(transaction.getTitle())
                 .setMessage(
-                        "Category: " + transaction.getCategory() + "\n" +
-                                "Amount: ₹" + String.format(Locale.getDefault(), "%.2f", transaction.getAmount()) + "\n" +
+                        "Category: " + CategoryRegistry.getInstance(this)
+                                .get(transaction.getCategoryId()).getName() + "\n" +
+                                "Amount: " + MoneyFormatter.getInstance().format(transaction.getAmount()) + "\n" +
                                 "Type: " + transaction.getType() + "\n" +
-                                (transaction.getNote() != null && !transaction.getNote().isEmpty() ?
-                                        "Note: " + transaction.getNote() : "")
+                                (note != null && !note.isEmpty() ? "Note: " + note : "")
                 )
                 .setPositiveButton("OK", null)
                 .setNegativeButton("Delete", (dialog, which) -> {
@@ -313,13 +788,13 @@ public class TransactionsActivity extends AppCompatActivity
                 .setTitle("Delete Transaction")
                 .setMessage("Are you sure you want to delete this transaction?")
                 .setPositiveButton("Delete", (dialog, which) -> {
-                    boolean deleted = databaseHelper.deleteTransaction(transaction.getId());
-                    if (deleted) {
-                        Toast.makeText(this, "Transaction deleted", Toast.LENGTH_SHORT).show();
-                        loadTransactions();
-                    } else {
-                        Toast.makeText(this, "Failed to delete transaction", Toast.LENGTH_SHORT).show();
-                    }
+                    repository.deleteTransaction(transaction.getId(), deleted -> {
+                        if (deleted) {
+                            Toast.makeText(this, "Transaction deleted", Toast.LENGTH_SHORT).show();
+                        } else {
+                            Toast.makeText(this, "Failed to delete transaction", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
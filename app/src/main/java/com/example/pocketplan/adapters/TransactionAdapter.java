@@ -1,8 +1,15 @@
 package com.example.pocketplan.adapters;
 
 import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.ColorFilter;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
 import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -11,35 +18,109 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.pocketplan.CategoryRegistry;
 import com.example.pocketplan.R;
+import com.example.pocketplan.models.Category;
 import com.example.pocketplan.models.Transaction;
+import com.example.pocketplan.models.TransactionColumns;
+import com.example.pocketplan.models.TransactionFilter;
+import com.example.pocketplan.utils.MoneyFormatter;
+import com.example.pocketplan.utils.RelativeTimeFormatter;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
-
+import java.util.Objects;
+
+/**
+ * Transaction list rows. By default rows are Transaction objects diffed on a
+ * background thread (AsyncListDiffer). In compact mode they are kept in
+ * TransactionColumns instead and bound straight from its arrays, for very
+ * long ledgers on devices short of memory; changes are then notified directly.
+ */
 public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.TransactionViewHolder> {
 
     private static final String TAG = "TransactionAdapter";
 
+    // Payload bits: which parts of a row changed, so a rebind touches only those views
+    private static final int CHANGED_TITLE    = 1;
+    private static final int CHANGED_CATEGORY = 1 << 1;
+    private static final int CHANGED_AMOUNT   = 1 << 2; // amount or type
+    private static final int CHANGED_TIME     = 1 << 3;
+    private static final int CHANGED_ALL      = CHANGED_TITLE | CHANGED_CATEGORY | CHANGED_AMOUNT | CHANGED_TIME;
+
+    private static final DiffUtil.ItemCallback<Transaction> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<Transaction>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Transaction oldItem, @NonNull Transaction newItem) {
+                    return oldItem.getId() == newItem.getId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull Transaction oldItem, @NonNull Transaction newItem) {
+                    return changes(oldItem, newItem) == 0;
+                }
+
+                @Override
+                public Object getChangePayload(@NonNull Transaction oldItem, @NonNull Transaction newItem) {
+                    return changes(oldItem, newItem);
+                }
+            };
+
     private Context context;
+    // Every loaded row, already filtered and sorted by the database. This is
+    // the last list handed to the differ, so it is replaced, never modified
     private List<Transaction> transactions;
-    private List<Transaction> transactionsFiltered;
+    private TransactionFilter.Sort sort; // the query's order, for placing single inserts
+    private final AsyncListDiffer<Transaction> differ;
+    // Compact mode only: every loaded row, bound without Transaction objects
+    private final boolean compact;
+    private TransactionColumns columns;
     private OnTransactionClickListener listener;
+    private Runnable onListCommitted;
+
+    // Bind state shared by all rows: resolved once instead of per bind
+    private final RelativeTimeFormatter dateFormatter;
+    private final MoneyFormatter moneyFormatter;
+    private final int incomeColor;
+    private final int expenseColor;
+    private final SparseIntArray resolvedColors = new SparseIntArray();
+    private final SparseArray<ColorFilter> tintFilters = new SparseArray<>();
+    private final SparseArray<ColorStateList> colorLists = new SparseArray<>();
 
     public interface OnTransactionClickListener {
         void onTransactionClick(Transaction transaction);
     }
 
     public TransactionAdapter(Context context, List<Transaction> transactions, OnTransactionClickListener listener) {
+        this(context, transactions, listener, false);
+    }
+
+    /** @param compact Keep rows in TransactionColumns; load pages with updateColumns()/appendColumns() */
+    public TransactionAdapter(Context context, List<Transaction> transactions,
+                              OnTransactionClickListener listener, boolean compact) {
         this.context = context;
-        this.transactions = transactions;
-        this.transactionsFiltered = new ArrayList<>(transactions);
         this.listener = listener;
+        this.compact = compact;
+        this.dateFormatter = new RelativeTimeFormatter(Locale.getDefault());
+        this.moneyFormatter = MoneyFormatter.getInstance();
+        this.incomeColor = color(R.color.income_green);
+        this.expenseColor = color(R.color.expense_red);
+        // Diffs run on the differ's background thread; only the resulting
+        // inserts, moves and changes are dispatched to the RecyclerView
+        this.differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+        setHasStableIds(true);
+        updateTransactions(transactions, TransactionFilter.Sort.DATE_DESC);
+    }
+
+    public boolean isCompact() {
+        return compact;
     }
 
     @NonNull
@@ -51,198 +132,357 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull TransactionViewHolder holder, int position) {
-        Transaction transaction = transactionsFiltered.get(position);
-        holder.bind(transaction);
+        bind(holder, position, CHANGED_ALL);
     }
 
     @Override
-    public int getItemCount() {
-        return transactionsFiltered.size();
+    public void onBindViewHolder(@NonNull TransactionViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        int changed = 0;
+        for (Object payload : payloads) {
+            changed |= (Integer) payload;
+        }
+        bind(holder, position, changed);
     }
 
-    // Filter methods
-    public void filterByType(String type) {
-        transactionsFiltered.clear();
-        if (type.equals("ALL")) {
-            transactionsFiltered.addAll(transactions);
+    private void bind(TransactionViewHolder holder, int position, int changed) {
+        if (compact) {
+            holder.bind(columns.getTitle(position), columns.getCategoryId(position),
+                    columns.getAmount(position), columns.isIncome(position),
+                    columns.getTimestamp(position), changed);
         } else {
-            for (Transaction transaction : transactions) {
-                if (transaction.getType().equalsIgnoreCase(type)) {
-                    transactionsFiltered.add(transaction);
-                }
-            }
+            Transaction t = differ.getCurrentList().get(position);
+            holder.bind(t.getTitle(), t.getCategoryId(), t.getAmount(), t.isIncome(),
+                    t.getTimestamp(), changed);
         }
-        notifyDataSetChanged();
     }
 
-    // Sort methods
-    public void sortByDate(boolean descending) {
-        if (descending) {
-            transactionsFiltered.sort((t1, t2) -> Long.compare(t2.getTimestamp(), t1.getTimestamp()));
-        } else {
-            transactionsFiltered.sort((t1, t2) -> Long.compare(t1.getTimestamp(), t2.getTimestamp()));
+    @Override
+    public long getItemId(int position) {
+        return compact ? columns.getId(position) : differ.getCurrentList().get(position).getId();
+    }
+
+    @Override
+    public int getItemCount() {
+        return compact ? columns.size() : differ.getCurrentList().size();
+    }
+
+    // Row at a position as a Transaction; in compact mode this builds one
+    private Transaction getTransaction(int position) {
+        return compact ? columns.get(position) : differ.getCurrentList().get(position);
+    }
+
+    /** Run after each list update has been applied to the RecyclerView. */
+    public void setOnListCommittedListener(Runnable onListCommitted) {
+        this.onListCommitted = onListCommitted;
+    }
+
+    private void submit(List<Transaction> list) {
+        transactions = list;
+        differ.submitList(list, this::listCommitted);
+    }
+
+    private void listCommitted() {
+        if (onListCommitted != null) onListCommitted.run();
+    }
+
+    /**
+     * Replace the rows, e.g. with the first page of a new filter or sort.
+     * In compact mode the rows are copied into columns.
+     * @param sort The order the rows are in
+     */
+    public void updateTransactions(List<Transaction> newTransactions, TransactionFilter.Sort sort) {
+        if (compact) {
+            updateColumns(toColumns(newTransactions), sort);
+            return;
         }
-        notifyDataSetChanged();
+        this.sort = sort;
+        submit(new ArrayList<>(newTransactions));
+        Log.d(TAG, "Updated transactions: " + newTransactions.size() + " items");
     }
 
-    public void sortByAmount(boolean descending) {
-        if (descending) {
-            transactionsFiltered.sort((t1, t2) -> Double.compare(t2.getAmount(), t1.getAmount()));
-        } else {
-            transactionsFiltered.sort((t1, t2) -> Double.compare(t1.getAmount(), t2.getAmount()));
+    // Paging methods
+    public void appendTransactions(List<Transaction> page) {
+        if (compact) {
+            appendColumns(toColumns(page));
+            return;
         }
-        notifyDataSetChanged();
+        List<Transaction> loaded = new ArrayList<>(transactions.size() + page.size());
+        loaded.addAll(transactions);
+        loaded.addAll(page);
+        submit(loaded);
+        Log.d(TAG, "Appended page: " + page.size() + " items");
     }
 
-    public void updateTransactions(List<Transaction> newTransactions) {
-        this.transactions = newTransactions;
-        this.transactionsFiltered = new ArrayList<>(newTransactions);
+    private static TransactionColumns toColumns(List<Transaction> rows) {
+        TransactionColumns page = new TransactionColumns(rows.size());
+        for (Transaction t : rows) {
+            page.insert(page.size(), t);
+        }
+        return page;
+    }
+
+    // Compact mode paging: the adapter takes ownership of the page
+
+    /** Replace the rows with a first page (compact mode). */
+    public void updateColumns(TransactionColumns page, TransactionFilter.Sort sort) {
+        this.sort = sort;
+        this.columns = page;
         notifyDataSetChanged();
-        Log.d(TAG, "Updated transactions: " + newTransactions.size() + " items");
+        listCommitted();
+        Log.d(TAG, "Updated columns: " + page.size() + " rows");
+    }
+
+    /** Add the next page after the loaded rows (compact mode). */
+    public void appendColumns(TransactionColumns page) {
+        int start = columns.size();
+        columns.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+        listCommitted();
+        Log.d(TAG, "Appended columns: " + page.size() + " rows");
     }
 
-    class TransactionViewHolder extends RecyclerView.ViewHolder {
+    // Single-row changes: the diff comes out as one insert or removal
+
+    /** Add a newly saved row in its place under the current sort; the caller checks the filter. */
+    public void insertTransaction(Transaction transaction) {
+        if (compact) {
+            int index = columns.insertionPoint(transaction, sort);
+            columns.insert(index, transaction);
+            notifyItemInserted(index);
+            listCommitted();
+            return;
+        }
+        List<Transaction> loaded = new ArrayList<>(transactions.size() + 1);
+        loaded.addAll(transactions);
+        loaded.add(insertionPoint(loaded, transaction, sort.comparator()), transaction);
+        submit(loaded);
+    }
+
+    /** Drop the row with this id, if loaded. */
+    public void removeTransaction(int id) {
+        if (compact) {
+            int index = columns.indexOfId(id);
+            if (index >= 0) {
+                columns.remove(index);
+                notifyItemRemoved(index);
+                listCommitted();
+            }
+            return;
+        }
+        List<Transaction> loaded = new ArrayList<>(transactions);
+        if (removeById(loaded, id)) {
+            submit(loaded);
+        }
+    }
+
+    private static boolean removeById(List<Transaction> list, int id) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).getId() == id) {
+                list.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int insertionPoint(List<Transaction> list, Transaction transaction,
+                                      Comparator<Transaction> comparator) {
+        int index = Collections.binarySearch(list, transaction, comparator);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /** Bitmask of the CHANGED_* parts that differ between two versions of a row. */
+    private static int changes(Transaction oldItem, Transaction newItem) {
+        int changed = 0;
+        if (!Objects.equals(oldItem.getTitle(), newItem.getTitle())) changed |= CHANGED_TITLE;
+        if (oldItem.getCategoryId() != newItem.getCategoryId()) changed |= CHANGED_CATEGORY;
+        if (oldItem.getAmount() != newItem.getAmount()
+                || !Objects.equals(oldItem.getType(), newItem.getType())) {
+            // Type also decides the icon tint, so it rebinds the category too
+            changed |= CHANGED_AMOUNT | CHANGED_CATEGORY;
+        }
+        if (oldItem.getTimestamp() != newItem.getTimestamp()) changed |= CHANGED_TIME;
+        return changed;
+    }
+
+    /** Last row loaded so far; the keyset for the next page. */
+    public Transaction getLastLoadedTransaction() {
+        if (compact) {
+            return columns.size() == 0 ? null : columns.get(columns.size() - 1);
+        }
+        return transactions.isEmpty() ? null : transactions.get(transactions.size() - 1);
+    }
+
+    // ─── Colors ──────────────────────────────────────────────────────────────────
+
+    // Resolved once per color resource, so binding does not go back to Resources
+    private int color(int colorRes) {
+        int index = resolvedColors.indexOfKey(colorRes);
+        if (index >= 0) {
+            return resolvedColors.valueAt(index);
+        }
+        int color = ContextCompat.getColor(context, colorRes);
+        resolvedColors.put(colorRes, color);
+        return color;
+    }
+
+    // Same filter ImageView.setColorFilter(int) would create, kept per color
+    private ColorFilter tintFilter(int color) {
+        ColorFilter filter = tintFilters.get(color);
+        if (filter == null) {
+            filter = new PorterDuffColorFilter(color, PorterDuff.Mode.SRC_ATOP);
+            tintFilters.put(color, filter);
+        }
+        return filter;
+    }
+
+    // setTextColor(int) and GradientDrawable.setColor(int) would each wrap the
+    // color in a ColorStateList; kept per color instead
+    private ColorStateList colorList(int color) {
+        ColorStateList list = colorLists.get(color);
+        if (list == null) {
+            list = ColorStateList.valueOf(color);
+            colorLists.put(color, list);
+        }
+        return list;
+    }
+
+    public class TransactionViewHolder extends RecyclerView.ViewHolder {
 
-        private View viewCategoryIconBg;
         private ImageView ivCategoryIcon;
         private TextView tvTransactionTitle;
         private TextView tvCategoryName;
         private TextView tvDateTime;
         private TextView tvAmount;
-        private View viewTypeIndicator;
+        private GradientDrawable iconBackground; // mutated, so rows don't share one color
+        private GradientDrawable typeIndicator;
+
+        // Reused on every bind: text is built in the builder, then copied into a
+        // char array the TextView wraps without making a String
+        private final StringBuilder text = new StringBuilder(32);
+        private char[] dateChars = new char[32];
+        private char[] amountChars = new char[24];
+
+        // This row's icon drawables by resource id: setImageResource() would
+        // inflate a new drawable every time the category changes
+        private final SparseArray<Drawable> icons = new SparseArray<>();
+
+        // Last values set, so unchanged drawables are left alone
+        private int iconRes;
+        private int iconBackgroundColor;
+        private int iconTint;
+        private int amountColor;
 
         public TransactionViewHolder(@NonNull View itemView) {
             super(itemView);
 
-            viewCategoryIconBg = itemView.findViewById(R.id.viewCategoryIconBg);
             ivCategoryIcon = itemView.findViewById(R.id.ivCategoryIcon);
             tvTransactionTitle = itemView.findViewById(R.id.tvTransactionTitle);
             tvCategoryName = itemView.findViewById(R.id.tvCategoryName);
             tvDateTime = itemView.findViewById(R.id.tvDateTime);
             tvAmount = itemView.findViewById(R.id.tvAmount);
-            viewTypeIndicator = itemView.findViewById(R.id.viewTypeIndicator);
+            iconBackground = mutableGradient(itemView.findViewById(R.id.viewCategoryIconBg));
+            typeIndicator = mutableGradient(itemView.findViewById(R.id.viewTypeIndicator));
 
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onTransactionClick(transactionsFiltered.get(position));
+                    listener.onTransactionClick(getTransaction(position));
                 }
             });
         }
 
-        public void bind(Transaction transaction) {
-            try {
-                // Set title and category
-                tvTransactionTitle.setText(transaction.getTitle());
-                tvCategoryName.setText(transaction.getCategory());
+        private GradientDrawable mutableGradient(View view) {
+            Drawable background = view.getBackground();
+            if (background instanceof GradientDrawable) {
+                return (GradientDrawable) background.mutate();
+            }
+            Log.e(TAG, "Expected a shape background on " + view);
+            return null;
+        }
 
-                // Set category icon with fallback
-                int iconRes = transaction.getCategoryIconRes();
-                if (iconRes == 0) {
-                    iconRes = android.R.drawable.ic_dialog_info;
-                }
-                ivCategoryIcon.setImageResource(iconRes);
+        /** Bind the parts of the row named by the CHANGED_* bits in changed. */
+        void bind(String title, int categoryId, long amount, boolean isIncome,
+                  long timestamp, int changed) {
+            // Set title
+            if ((changed & CHANGED_TITLE) != 0) {
+                tvTransactionTitle.setText(title);
+            }
 
-                // Set category icon background color with fallback
-                int colorRes = transaction.getCategoryColorRes();
-                if (colorRes == 0) {
-                    colorRes = R.color.category_default;
+            if ((changed & CHANGED_CATEGORY) != 0) {
+                // Looked up per bind, not kept: adding a category replaces the registry.
+                // Already in memory, since TransactionRepository loads it before delivering rows
+                Category category = CategoryRegistry.getInstance(context).get(categoryId);
+
+                // Set category name and icon
+                tvCategoryName.setText(category.getName());
+                if (iconRes != category.getIconRes()) {
+                    iconRes = category.getIconRes();
+                    Drawable icon = icons.get(iconRes);
+                    if (icon == null) {
+                        icon = ContextCompat.getDrawable(context, iconRes);
+                        icons.put(iconRes, icon);
+                    }
+                    ivCategoryIcon.setImageDrawable(icon);
                 }
 
-                try {
-                    GradientDrawable iconBgDrawable = (GradientDrawable) viewCategoryIconBg.getBackground();
-                    iconBgDrawable.setColor(ContextCompat.getColor(context, colorRes));
-                } catch (Exception e) {
-                    Log.e(TAG, "Error setting background color: " + e.getMessage());
+                // Set category icon background color
+                int backgroundColor = color(category.getColorRes());
+                if (iconBackground != null && iconBackgroundColor != backgroundColor) {
+                    iconBackgroundColor = backgroundColor;
+                    iconBackground.setColor(colorList(backgroundColor));
                 }
 
-                // Set icon tint
-                int iconTintColor = getCategoryIconColor(transaction);
-                ivCategoryIcon.setColorFilter(ContextCompat.getColor(context, iconTintColor));
-
-                // Set date and time
-                tvDateTime.setText(formatDateTime(transaction.getTimestamp()));
-
-                // Set amount with sign and color
-                boolean isIncome = transaction.isIncome();
-                String amountText = (isIncome ? "+ " : "- ") + "₹" +
-                        String.format(Locale.getDefault(), "%.2f", transaction.getAmount());
-                tvAmount.setText(amountText);
-                tvAmount.setTextColor(ContextCompat.getColor(context,
-                        isIncome ? R.color.income_green : R.color.expense_red));
-
-                // Set type indicator color
-                try {
-                    GradientDrawable indicatorDrawable = (GradientDrawable) viewTypeIndicator.getBackground();
-                    indicatorDrawable.setColor(ContextCompat.getColor(context,
-                            isIncome ? R.color.income_green : R.color.expense_red));
-                } catch (Exception e) {
-                    Log.e(TAG, "Error setting indicator color: " + e.getMessage());
+                // Set icon tint: income is always green, expenses use the category's tint
+                int tint = color(isIncome ? R.color.income_green : category.getTintRes());
+                if (iconTint != tint) {
+                    iconTint = tint;
+                    ivCategoryIcon.setColorFilter(tintFilter(tint));
                 }
-
-            } catch (Exception e) {
-                Log.e(TAG, "Error binding transaction: " + e.getMessage(), e);
             }
-        }
 
-        private int getCategoryIconColor(Transaction transaction) {
-            // Return darker version of category color for icon
-            if (transaction.isIncome()) {
-                return R.color.income_green;
+            // Set date and time
+            if ((changed & CHANGED_TIME) != 0) {
+                text.setLength(0);
+                dateFormatter.appendTo(text, timestamp, System.currentTimeMillis());
+                dateChars = setText(tvDateTime, text, dateChars);
             }
 
-            // Match category names exactly as they appear in AddTransactionActivity
-            String category = transaction.getCategory();
-
-            if (category.equalsIgnoreCase("Food & Dining")) {
-                return R.color.icon_food;
-            } else if (category.equalsIgnoreCase("Transportation")) {
-                return R.color.icon_transport;
-            } else if (category.equalsIgnoreCase("Shopping")) {
-                return R.color.icon_shopping;
-            } else if (category.equalsIgnoreCase("Entertainment")) {
-                return R.color.icon_entertainment;
-            } else if (category.equalsIgnoreCase("Bills & Utilities")) {
-                return R.color.icon_bills;
-            } else if (category.equalsIgnoreCase("Healthcare")) {
-                return R.color.icon_health;
-            } else if (category.equalsIgnoreCase("Education")) {
-                return R.color.icon_education;
-            } else if (category.equalsIgnoreCase("Travel")) {
-                return R.color.icon_travel;
-            } else if (category.equalsIgnoreCase("Groceries")) {
-                return R.color.icon_groceries;
-            } else {
-                return R.color.icon_default;
+            if ((changed & CHANGED_AMOUNT) != 0) {
+                // Set amount with sign
+                text.setLength(0);
+                moneyFormatter.appendTo(text.append(isIncome ? "+ " : "- "), amount);
+                amountChars = setText(tvAmount, text, amountChars);
+
+                // Set amount and type indicator color
+                int typeColor = isIncome ? incomeColor : expenseColor;
+                if (amountColor != typeColor) {
+                    amountColor = typeColor;
+                    tvAmount.setTextColor(colorList(typeColor));
+                    if (typeIndicator != null) {
+                        typeIndicator.setColor(colorList(typeColor));
+                    }
+                }
             }
         }
 
-        private String formatDateTime(long timestamp) {
-            try {
-                Date date = new Date(timestamp);
-                Date now = new Date();
-
-                long diffInMillis = now.getTime() - date.getTime();
-                long diffInHours = diffInMillis / (1000 * 60 * 60);
-                long diffInDays = diffInMillis / (1000 * 60 * 60 * 24);
-
-                SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
-
-                if (diffInHours < 24 && now.getDate() == date.getDate()) {
-                    return "Today, " + timeFormat.format(date);
-                } else if (diffInDays == 1) {
-                    return "Yesterday, " + timeFormat.format(date);
-                } else if (diffInDays < 7) {
-                    SimpleDateFormat dayFormat = new SimpleDateFormat("EEEE, h:mm a", Locale.getDefault());
-                    return dayFormat.format(date);
-                } else {
-                    SimpleDateFormat fullFormat = new SimpleDateFormat("MMM dd, h:mm a", Locale.getDefault());
-                    return fullFormat.format(date);
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "Error formatting date: " + e.getMessage());
-                return "Unknown";
+        /**
+         * Show the builder's contents through a char array the TextView keeps a
+         * reference to. Returns the array to reuse next time (grown if needed).
+         */
+        private char[] setText(TextView view, StringBuilder source, char[] chars) {
+            int length = source.length();
+            if (chars.length < length) {
+                chars = new char[length * 2];
             }
+            source.getChars(0, length, chars, 0);
+            view.setText(chars, 0, length);
+            return chars;
         }
     }
-}
\ No newline at end of file
+}
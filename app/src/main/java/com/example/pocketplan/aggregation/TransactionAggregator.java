@@ -0,0 +1,175 @@
+package com.example.pocketplan.aggregation;
+
+import java.util.Arrays;
+
+/**
+ * Folds a stream of (time, type, category, amount) records into every
+ * accumulator in a single pass: total and count per type, per-category sums,
+ * a bucketed series and the top categories. A record may be one transaction
+ * or a pre-summed rollup row, whose row count is passed along.
+ *
+ * State lives in primitive arrays indexed by type and category id, so adding
+ * a record allocates nothing once the category arrays have grown to the
+ * largest id. Times are opaque longs compared with the bucket starts, so epoch
+ * millis and rollup keys (yyyyMMdd, yyyyMM) both work. Not thread-safe.
+ */
+public final class TransactionAggregator {
+
+    public static final int INCOME = 0;
+    public static final int EXPENSE = 1;
+    private static final int TYPES = 2;
+
+    private final long[] bucketStarts; // ascending; empty for no series
+    private final long seriesEnd;      // exclusive end of the last bucket
+
+    private final long[] totals = new long[TYPES];
+    private final int[] counts = new int[TYPES];
+    private final long[][] series;
+    private long[][] categorySums = new long[TYPES][16];
+    private int categoryLimit; // one past the largest category id seen
+
+    /** Totals, counts and categories only. */
+    public TransactionAggregator() {
+        this(new long[0], 0);
+    }
+
+    /**
+     * Also sum a series: bucket i covers [bucketStarts[i], bucketStarts[i + 1]),
+     * and the last one ends at seriesEnd. Records outside the series still
+     * count towards the totals and categories.
+     * @param bucketStarts Ascending bucket starts, in the records' time unit
+     */
+    public TransactionAggregator(long[] bucketStarts, long seriesEnd) {
+        this.bucketStarts = bucketStarts.clone();
+        this.seriesEnd = seriesEnd;
+        this.series = new long[TYPES][bucketStarts.length];
+    }
+
+    /** INCOME or EXPENSE for a stored type string, or -1 for anything else. */
+    public static int typeOf(String type) {
+        if ("EXPENSE".equals(type)) return EXPENSE;
+        if ("INCOME".equals(type)) return INCOME;
+        return -1;
+    }
+
+    /** Add one transaction. */
+    public void add(long time, int type, int categoryId, long amount) {
+        add(time, type, categoryId, amount, 1);
+    }
+
+    /**
+     * Add a record standing for {@code count} transactions totalling {@code amount}.
+     * Records with an unknown type are ignored; a negative category id counts
+     * towards the totals and series only.
+     */
+    public void add(long time, int type, int categoryId, long amount, int count) {
+        if (type != INCOME && type != EXPENSE) return;
+        totals[type] += amount;
+        counts[type] += count;
+
+        if (categoryId >= 0) {
+            if (categoryId >= categorySums[type].length) {
+                growCategories(categoryId);
+            }
+            categorySums[type][categoryId] += amount;
+            if (categoryId >= categoryLimit) categoryLimit = categoryId + 1;
+        }
+
+        int bucket = bucketOf(time);
+        if (bucket >= 0) {
+            series[type][bucket] += amount;
+        }
+    }
+
+    /** Drop everything added so far, keeping the buckets and grown arrays. */
+    public void clear() {
+        Arrays.fill(totals, 0);
+        Arrays.fill(counts, 0);
+        for (int type = 0; type < TYPES; type++) {
+            Arrays.fill(series[type], 0);
+            Arrays.fill(categorySums[type], 0, categoryLimit, 0);
+        }
+        categoryLimit = 0;
+    }
+
+    // ─── Results ─────────────────────────────────────────────────────────────────
+
+    public long getTotal(int type) {
+        return totals[type];
+    }
+
+    public int getCount(int type) {
+        return counts[type];
+    }
+
+    /** Sum for one category; 0 if nothing was added for it. */
+    public long getCategoryTotal(int type, int categoryId) {
+        long[] sums = categorySums[type];
+        return categoryId >= 0 && categoryId < sums.length ? sums[categoryId] : 0;
+    }
+
+    /** Ids of the categories with a positive sum, ascending. */
+    public int[] getCategoryIds(int type) {
+        long[] sums = categorySums[type];
+        int count = 0;
+        for (int id = 0; id < categoryLimit; id++) {
+            if (sums[id] > 0) count++;
+        }
+        int[] ids = new int[count];
+        for (int id = 0, i = 0; id < categoryLimit; id++) {
+            if (sums[id] > 0) ids[i++] = id;
+        }
+        return ids;
+    }
+
+    /** One sum per bucket, oldest first. */
+    public long[] getSeries(int type) {
+        return series[type].clone();
+    }
+
+    /**
+     * Up to {@code limit} category ids with the largest positive sums, largest
+     * first; ties go to the lower id. A partial selection, not a full sort.
+     */
+    public int[] getTopCategories(int type, int limit) {
+        if (limit <= 0) return new int[0];
+        long[] sums = categorySums[type];
+        int[] top = new int[limit];
+        int size = 0;
+        for (int id = 0; id < categoryLimit; id++) {
+            long sum = sums[id];
+            if (sum <= 0) continue;
+            if (size == top.length && sum <= sums[top[size - 1]]) continue;
+            // Insertion into the short sorted list; the last entry drops off when full
+            int i = size < top.length ? size++ : size - 1;
+            while (i > 0 && sums[top[i - 1]] < sum) {
+                top[i] = top[i - 1];
+                i--;
+            }
+            top[i] = id;
+        }
+        return size == top.length ? top : Arrays.copyOf(top, size);
+    }
+
+    /** The category with the largest positive sum, or -1 if there is none. */
+    public int getMaxCategory(int type) {
+        int[] top = getTopCategories(type, 1);
+        return top.length > 0 ? top[0] : -1;
+    }
+
+    // ─── Internals ───────────────────────────────────────────────────────────────
+
+    private int bucketOf(long time) {
+        int buckets = bucketStarts.length;
+        if (buckets == 0 || time < bucketStarts[0] || time >= seriesEnd) return -1;
+        int index = Arrays.binarySearch(bucketStarts, time);
+        return index >= 0 ? index : -index - 2; // the bucket starting at or before time
+    }
+
+    private void growCategories(int categoryId) {
+        int size = Math.max(categoryId + 1, categorySums[0].length * 2);
+        for (int type = 0; type < TYPES; type++) {
+            categorySums[type] = Arrays.copyOf(categorySums[type], size);
+        }
+    }
+}
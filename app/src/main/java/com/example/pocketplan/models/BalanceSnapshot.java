@@ -0,0 +1,66 @@
+package com.example.pocketplan.models;
+
+/**
+ * Salary, income/expense totals and transaction counts read together
+ * from a single aggregate query (see DatabaseHelper.getBalanceSnapshot()).
+ * All amounts are in paise.
+ */
+public class BalanceSnapshot {
+
+    public static final BalanceSnapshot EMPTY = new BalanceSnapshot(0, 0, 0, 0, 0);
+
+    private final long salary;
+    private final long totalIncome;
+    private final long totalExpense;
+    private final int incomeCount;
+    private final int expenseCount;
+
+    public BalanceSnapshot(long salary, long totalIncome, long totalExpense,
+                           int incomeCount, int expenseCount) {
+        this.salary = salary;
+        this.totalIncome = totalIncome;
+        this.totalExpense = totalExpense;
+        this.incomeCount = incomeCount;
+        this.expenseCount = expenseCount;
+    }
+
+    // Getters
+    public long getSalary() { return salary; }
+    public long getTotalIncome() { return totalIncome; }
+    public long getTotalExpense() { return totalExpense; }
+    public int getIncomeCount() { return incomeCount; }
+    public int getExpenseCount() { return expenseCount; }
+
+    public int getTransactionCount() {
+        return incomeCount + expenseCount;
+    }
+
+    /** Salary plus recorded income, minus recorded expenses. */
+    public long getBalance() {
+        return salary + totalIncome - totalExpense;
+    }
+
+    /**
+     * This snapshot with a change applied, or null when the change does not
+     * carry enough to do so (a delete) and the snapshot must be re-read.
+     */
+    public BalanceSnapshot apply(DataChange change) {
+        switch (change.getType()) {
+            case INSERTED:
+                Transaction t = change.getTransaction();
+                if (t.isIncome()) {
+                    return new BalanceSnapshot(salary, totalIncome + t.getAmount(), totalExpense,
+                            incomeCount + 1, expenseCount);
+                }
+                return new BalanceSnapshot(salary, totalIncome, totalExpense + t.getAmount(),
+                        incomeCount, expenseCount + 1);
+            case CLEARED:
+                return new BalanceSnapshot(salary, 0, 0, 0, 0);
+            case SALARY_CHANGED:
+                return new BalanceSnapshot(change.getSalary(), totalIncome, totalExpense,
+                        incomeCount, expenseCount);
+            default:
+                return null;
+        }
+    }
+}
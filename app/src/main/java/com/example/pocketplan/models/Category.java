@@ -0,0 +1,54 @@
+package com.example.pocketplan.models;
+
+import androidx.annotation.ColorRes;
+import androidx.annotation.DrawableRes;
+
+import com.example.pocketplan.R;
+
+/**
+ * A row of the categories table plus how it is drawn. Transactions
+ * reference it by id; see CategoryRegistry for lookups.
+ */
+public class Category {
+    private final int id;
+    private final String name;
+    private final int iconRes;
+    private final int colorRes;  // icon background
+    private final int tintRes;   // icon tint
+    private final String budgetKey; // BudgetPrefs key, or null if it has no budget
+    private final boolean expense;
+    private final boolean income;
+
+    /** A category with the default look, offered for both expenses and income. */
+    public Category(int id, String name) {
+        this(id, name, android.R.drawable.ic_dialog_info, R.color.category_default,
+                R.color.icon_default, null, true, true);
+    }
+
+    public Category(int id, String name, @DrawableRes int iconRes, @ColorRes int colorRes,
+                    @ColorRes int tintRes, String budgetKey, boolean expense, boolean income) {
+        this.id = id;
+        this.name = name;
+        this.iconRes = iconRes;
+        this.colorRes = colorRes;
+        this.tintRes = tintRes;
+        this.budgetKey = budgetKey;
+        this.expense = expense;
+        this.income = income;
+    }
+
+    // Getters
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public int getIconRes() { return iconRes; }
+    public int getColorRes() { return colorRes; }
+    public int getTintRes() { return tintRes; }
+    public String getBudgetKey() { return budgetKey; }
+    public boolean isExpense() { return expense; }
+    public boolean isIncome() { return income; }
+
+    @Override
+    public String toString() {
+        return name; // shown by ArrayAdapter dropdowns
+    }
+}
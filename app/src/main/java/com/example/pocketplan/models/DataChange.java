@@ -0,0 +1,59 @@
+package com.example.pocketplan.models;
+
+/**
+ * One committed write to the database, published by DatabaseHelper so screens
+ * can update what they already show instead of reloading everything.
+ * Every change carries the data version it produced.
+ */
+public final class DataChange {
+
+    public enum Type {
+        INSERTED,       // getTransaction() is the new row
+        BULK_INSERTED,  // many rows were inserted at once; reload rather than merge
+        DELETED,        // getTransactionId() is the removed row
+        CLEARED,        // every transaction was removed
+        SALARY_CHANGED  // getSalary() is the new salary, in paise
+    }
+
+    private final Type type;
+    private final long version;
+    private final Transaction transaction;
+    private final int transactionId;
+    private final long salary;
+
+    private DataChange(Type type, long version, Transaction transaction,
+                       int transactionId, long salary) {
+        this.type = type;
+        this.version = version;
+        this.transaction = transaction;
+        this.transactionId = transactionId;
+        this.salary = salary;
+    }
+
+    public static DataChange inserted(long version, Transaction transaction) {
+        return new DataChange(Type.INSERTED, version, transaction, transaction.getId(), 0);
+    }
+
+    public static DataChange bulkInserted(long version) {
+        return new DataChange(Type.BULK_INSERTED, version, null, -1, 0);
+    }
+
+    public static DataChange deleted(long version, int transactionId) {
+        return new DataChange(Type.DELETED, version, null, transactionId, 0);
+    }
+
+    public static DataChange cleared(long version) {
+        return new DataChange(Type.CLEARED, version, null, -1, 0);
+    }
+
+    public static DataChange salaryChanged(long version, long salary) {
+        return new DataChange(Type.SALARY_CHANGED, version, null, -1, salary);
+    }
+
+    // Getters
+    public Type getType() { return type; }
+    public long getVersion() { return version; }
+    public Transaction getTransaction() { return transaction; }
+    public int getTransactionId() { return transactionId; }
+    public long getSalary() { return salary; }
+}
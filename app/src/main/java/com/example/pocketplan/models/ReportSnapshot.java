@@ -0,0 +1,180 @@
+package com.example.pocketplan.models;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ * Everything the Reports screen shows, read in one background pass (see
+ * DatabaseHelper.getReportSnapshot()) and cached by ReportCache. All amounts
+ * are in paise.
+ *
+ * The monthly series covers this month and the five before it; the daily
+ * series covers this week, Monday to Sunday. A snapshot is only reusable
+ * while those windows are still the current ones (see isCurrent()).
+ */
+public final class ReportSnapshot {
+
+    public static final int MONTHS = 6;
+    public static final int DAYS = 7;
+
+    // Bumped whenever the serialized layout changes; older files are ignored
+    private static final int FORMAT = 1;
+
+    private final long dataVersion; // DatabaseHelper.getDataVersion() when read, this process only
+    private final long changeCount; // DatabaseHelper.getChangeCount() when read, survives restarts
+    private final BalanceSnapshot balance;
+    private final int[] categoryIds; // ascending
+    private final long[] categoryExpense;
+    private final long monthStart;
+    private final long[] monthlyExpense;
+    private final long weekStart;
+    private final long[] dailyExpense;
+
+    public ReportSnapshot(long dataVersion, long changeCount, BalanceSnapshot balance,
+                          int[] categoryIds, long[] categoryExpense,
+                          long monthStart, long[] monthlyExpense,
+                          long weekStart, long[] dailyExpense) {
+        this.dataVersion = dataVersion;
+        this.changeCount = changeCount;
+        this.balance = balance;
+        this.categoryIds = categoryIds;
+        this.categoryExpense = categoryExpense;
+        this.monthStart = monthStart;
+        this.monthlyExpense = monthlyExpense;
+        this.weekStart = weekStart;
+        this.dailyExpense = dailyExpense;
+    }
+
+    // Getters
+    public long getDataVersion() { return dataVersion; }
+    public long getChangeCount() { return changeCount; }
+    public BalanceSnapshot getBalance() { return balance; }
+    public long getMonthStart() { return monthStart; }
+    public long getWeekStart() { return weekStart; }
+    public long[] getMonthlyExpense() { return monthlyExpense.clone(); }
+    public long[] getDailyExpense() { return dailyExpense.clone(); }
+
+    /** All-time expense in one category; 0 if it has none. */
+    public long getCategoryExpense(int categoryId) {
+        int index = Arrays.binarySearch(categoryIds, categoryId);
+        return index >= 0 ? categoryExpense[index] : 0;
+    }
+
+    /** All-time expense over every category. */
+    public long getTotalCategoryExpense() {
+        long total = 0;
+        for (long amount : categoryExpense) {
+            total += amount;
+        }
+        return total;
+    }
+
+    /** Whether the month and week windows are still the ones containing {@code now}. */
+    public boolean isCurrent(long now) {
+        return monthStart == firstMonthStart(now) && weekStart == weekStart(now);
+    }
+
+    // ─── Windows ─────────────────────────────────────────────────────────────────
+
+    /** Local midnight on the first of the month, five months before {@code now}'s. */
+    public static long firstMonthStart(long now) {
+        Calendar cal = startOfDay(now);
+        cal.set(Calendar.DAY_OF_MONTH, 1);
+        cal.add(Calendar.MONTH, -(MONTHS - 1));
+        return cal.getTimeInMillis();
+    }
+
+    /** Local midnight on the Monday of {@code now}'s week. */
+    public static long weekStart(long now) {
+        Calendar cal = startOfDay(now);
+        int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
+        int daysFromMon = (dayOfWeek == Calendar.SUNDAY) ? 6 : (dayOfWeek - Calendar.MONDAY);
+        cal.add(Calendar.DAY_OF_YEAR, -daysFromMon);
+        return cal.getTimeInMillis();
+    }
+
+    private static Calendar startOfDay(long time) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(time);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal;
+    }
+
+    // ─── Serialization ───────────────────────────────────────────────────────────
+
+    /** Everything but the data version, which means nothing to another process. */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(FORMAT);
+        out.writeLong(changeCount);
+        out.writeLong(balance.getSalary());
+        out.writeLong(balance.getTotalIncome());
+        out.writeLong(balance.getTotalExpense());
+        out.writeInt(balance.getIncomeCount());
+        out.writeInt(balance.getExpenseCount());
+        out.writeInt(categoryIds.length);
+        for (int i = 0; i < categoryIds.length; i++) {
+            out.writeInt(categoryIds[i]);
+            out.writeLong(categoryExpense[i]);
+        }
+        out.writeLong(monthStart);
+        writeSeries(out, monthlyExpense);
+        out.writeLong(weekStart);
+        writeSeries(out, dailyExpense);
+    }
+
+    /**
+     * Read what writeTo() wrote.
+     * @param dataVersion Version to tag the snapshot with
+     * @throws IOException if the data is truncated or in another format
+     */
+    public static ReportSnapshot readFrom(DataInput in, long dataVersion) throws IOException {
+        int format = in.readInt();
+        if (format != FORMAT) {
+            throw new IOException("Unknown report snapshot format " + format);
+        }
+        long changeCount = in.readLong();
+        BalanceSnapshot balance = new BalanceSnapshot(in.readLong(), in.readLong(), in.readLong(),
+                in.readInt(), in.readInt());
+        int categories = in.readInt();
+        if (categories < 0) {
+            throw new IOException("Bad category count " + categories);
+        }
+        int[] categoryIds = new int[categories];
+        long[] categoryExpense = new long[categories];
+        for (int i = 0; i < categories; i++) {
+            categoryIds[i] = in.readInt();
+            categoryExpense[i] = in.readLong();
+        }
+        long monthStart = in.readLong();
+        long[] monthly = readSeries(in, MONTHS);
+        long weekStart = in.readLong();
+        long[] daily = readSeries(in, DAYS);
+        return new ReportSnapshot(dataVersion, changeCount, balance, categoryIds, categoryExpense,
+                monthStart, monthly, weekStart, daily);
+    }
+
+    private static void writeSeries(DataOutput out, long[] series) throws IOException {
+        out.writeInt(series.length);
+        for (long value : series) {
+            out.writeLong(value);
+        }
+    }
+
+    private static long[] readSeries(DataInput in, int expectedLength) throws IOException {
+        int length = in.readInt();
+        if (length != expectedLength) {
+            throw new IOException("Bad series length " + length);
+        }
+        long[] series = new long[length];
+        for (int i = 0; i < length; i++) {
+            series[i] = in.readLong();
+        }
+        return series;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.pocketplan.models;
+
+/** A TransactionFilter the user saved under a name, to run again later. */
+public final class SavedFilter {
+
+    private final String name;
+    private final TransactionFilter filter;
+
+    public SavedFilter(String name, TransactionFilter filter) {
+        this.name = name;
+        this.filter = filter;
+    }
+
+    public String getName() { return name; }
+    public TransactionFilter getFilter() { return filter; }
+}
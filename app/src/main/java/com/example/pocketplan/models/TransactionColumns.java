@@ -0,0 +1,168 @@
+package com.example.pocketplan.models;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Transaction list rows kept column by column in primitive arrays, for
+ * ledgers too long to hold a Transaction object per loaded row. A row costs
+ * about 30 bytes; Transaction objects are only built on request (get()).
+ * Titles go through a pool, so repeated titles share one String. Notes are
+ * not kept, as in the list queries.
+ *
+ * Not thread-safe: a page is filled on a background thread and then handed
+ * to the main thread, which owns it from then on.
+ */
+public final class TransactionColumns {
+
+    private static final String INCOME = "INCOME";
+    private static final String EXPENSE = "EXPENSE";
+
+    private int size;
+    private int[] ids;
+    private String[] titles;
+    private int[] categoryIds;
+    private long[] amounts;     // paise
+    private boolean[] income;
+    private long[] timestamps;
+    private final HashMap<String, String> titlePool = new HashMap<>();
+
+    public TransactionColumns(int capacity) {
+        capacity = Math.max(capacity, 8);
+        ids = new int[capacity];
+        titles = new String[capacity];
+        categoryIds = new int[capacity];
+        amounts = new long[capacity];
+        income = new boolean[capacity];
+        timestamps = new long[capacity];
+    }
+
+    public int size() { return size; }
+
+    // Column getters; index is the row position
+    public int getId(int index) { return ids[index]; }
+    public String getTitle(int index) { return titles[index]; }
+    public int getCategoryId(int index) { return categoryIds[index]; }
+    public long getAmount(int index) { return amounts[index]; }
+    public boolean isIncome(int index) { return income[index]; }
+    public long getTimestamp(int index) { return timestamps[index]; }
+
+    /** The row as a Transaction, with no note. Allocates; not for the bind path. */
+    public Transaction get(int index) {
+        return new Transaction(ids[index], titles[index], categoryIds[index], amounts[index],
+                null, income[index] ? INCOME : EXPENSE, timestamps[index]);
+    }
+
+    /** The value the sort orders this row by. */
+    public long key(int index, TransactionFilter.Sort sort) {
+        return sort.isByAmount() ? amounts[index] : timestamps[index];
+    }
+
+    // ─── Changes ─────────────────────────────────────────────────────────────────
+
+    public void add(int id, String title, int categoryId, long amount, String type, long timestamp) {
+        insert(size, id, title, categoryId, amount, type, timestamp);
+    }
+
+    public void insert(int index, Transaction t) {
+        insert(index, t.getId(), t.getTitle(), t.getCategoryId(), t.getAmount(),
+                t.getType(), t.getTimestamp());
+    }
+
+    public void insert(int index, int id, String title, int categoryId, long amount,
+                       String type, long timestamp) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        ensureCapacity(size + 1);
+        if (index < size) {
+            shift(index, index + 1, size - index);
+        }
+        ids[index] = id;
+        titles[index] = pooled(title);
+        categoryIds[index] = categoryId;
+        amounts[index] = amount;
+        income[index] = INCOME.equalsIgnoreCase(type);
+        timestamps[index] = timestamp;
+        size++;
+    }
+
+    /** Append every row of another page, e.g. the next one loaded. */
+    public void addAll(TransactionColumns page) {
+        ensureCapacity(size + page.size);
+        System.arraycopy(page.ids, 0, ids, size, page.size);
+        System.arraycopy(page.categoryIds, 0, categoryIds, size, page.size);
+        System.arraycopy(page.amounts, 0, amounts, size, page.size);
+        System.arraycopy(page.income, 0, income, size, page.size);
+        System.arraycopy(page.timestamps, 0, timestamps, size, page.size);
+        for (int i = 0; i < page.size; i++) {
+            titles[size + i] = pooled(page.titles[i]);
+        }
+        size += page.size;
+    }
+
+    public void remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        shift(index + 1, index, size - index - 1);
+        size--;
+        titles[size] = null;
+    }
+
+    // ─── Lookups ─────────────────────────────────────────────────────────────────
+
+    /** Position of the row with this id, or -1. */
+    public int indexOfId(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+
+    /** Where a row belongs among these rows, which are in the given sort order. */
+    public int insertionPoint(Transaction t, TransactionFilter.Sort sort) {
+        long key = sort.key(t);
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sort.compare(key(mid, sort), ids[mid], key, t.getId()) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // ─── Storage ─────────────────────────────────────────────────────────────────
+
+    private String pooled(String title) {
+        if (title == null) return null;
+        String existing = titlePool.get(title);
+        if (existing != null) return existing;
+        titlePool.put(title, title);
+        return title;
+    }
+
+    private void shift(int from, int to, int count) {
+        System.arraycopy(ids, from, ids, to, count);
+        System.arraycopy(titles, from, titles, to, count);
+        System.arraycopy(categoryIds, from, categoryIds, to, count);
+        System.arraycopy(amounts, from, amounts, to, count);
+        System.arraycopy(income, from, income, to, count);
+        System.arraycopy(timestamps, from, timestamps, to, count);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) return;
+        int capacity = Math.max(needed, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        income = Arrays.copyOf(income, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.pocketplan.models;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Which transactions to list and in what order: type, a set of categories,
+ * amount and date ranges, full-text words and a sort. DatabaseHelper turns
+ * it into one parameterized WHERE/ORDER BY (see getTransactionsPage()).
+ * Immutable: the with...() methods return a modified copy.
+ */
+public final class TransactionFilter {
+
+    /** List order. Ties are broken by id in the same direction, so paging is stable. */
+    public enum Sort {
+        DATE_DESC(false, true),
+        DATE_ASC(false, false),
+        AMOUNT_DESC(true, true),
+        AMOUNT_ASC(true, false);
+
+        private final boolean byAmount;
+        private final boolean descending;
+        private final Comparator<Transaction> comparator;
+
+        Sort(boolean byAmount, boolean descending) {
+            this.byAmount = byAmount;
+            this.descending = descending;
+            this.comparator = (t1, t2) -> compare(key(t1), t1.getId(), key(t2), t2.getId());
+        }
+
+        public boolean isByAmount() { return byAmount; }
+        public boolean isDescending() { return descending; }
+
+        /** Same order as the SQL, for placing a single new row in a loaded list. */
+        public Comparator<Transaction> comparator() { return comparator; }
+
+        /** The value this order sorts on. */
+        public long key(Transaction transaction) {
+            return byAmount ? transaction.getAmount() : transaction.getTimestamp();
+        }
+
+        /** comparator() on a row's sort key and id, for rows kept without objects. */
+        public int compare(long key1, int id1, long key2, int id2) {
+            int ascending = key1 != key2 ? Long.compare(key1, key2) : Integer.compare(id1, id2);
+            return descending ? -ascending : ascending;
+        }
+    }
+
+    public static final TransactionFilter ALL = new TransactionFilter(null, new int[0],
+            0, Long.MAX_VALUE, 0, Long.MAX_VALUE, null, Sort.DATE_DESC);
+
+    private final String type;          // "INCOME", "EXPENSE" or null for both
+    private final int[] categoryIds;    // sorted, no duplicates; empty for any category
+    private final long minAmount;       // paise, inclusive
+    private final long maxAmount;       // paise, inclusive
+    private final long startTime;       // inclusive
+    private final long endTime;         // exclusive
+    private final String text;          // full-text words, or null
+    private final Sort sort;
+
+    private TransactionFilter(String type, int[] categoryIds, long minAmount, long maxAmount,
+                              long startTime, long endTime, String text, Sort sort) {
+        this.type = type;
+        this.categoryIds = categoryIds;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.text = text;
+        this.sort = sort;
+    }
+
+    public TransactionFilter withType(String type) {
+        return new TransactionFilter(type, categoryIds, minAmount, maxAmount, startTime, endTime, text, sort);
+    }
+
+    /** Match any of these categories; no ids for any category. */
+    public TransactionFilter withCategories(int... ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) sorted[count++] = sorted[i];
+        }
+        return new TransactionFilter(type, Arrays.copyOf(sorted, count),
+                minAmount, maxAmount, startTime, endTime, text, sort);
+    }
+
+    public TransactionFilter withCategory(int categoryId) {
+        return categoryId < 0 ? withCategories() : withCategories(categoryId);
+    }
+
+    /** Amounts from min to max paise, both inclusive; 0 and Long.MAX_VALUE for any amount. */
+    public TransactionFilter withAmountRange(long minAmount, long maxAmount) {
+        return new TransactionFilter(type, categoryIds, minAmount, maxAmount, startTime, endTime, text, sort);
+    }
+
+    public TransactionFilter withDateRange(long startTime, long endTime) {
+        return new TransactionFilter(type, categoryIds, minAmount, maxAmount, startTime, endTime, text, sort);
+    }
+
+    /** Words to find in the title or note (see DatabaseHelper.toPrefixQuery()); null or blank for none. */
+    public TransactionFilter withText(String text) {
+        String trimmed = text != null && !text.trim().isEmpty() ? text.trim() : null;
+        return new TransactionFilter(type, categoryIds, minAmount, maxAmount, startTime, endTime, trimmed, sort);
+    }
+
+    public TransactionFilter withSort(Sort sort) {
+        return new TransactionFilter(type, categoryIds, minAmount, maxAmount, startTime, endTime, text, sort);
+    }
+
+    // Getters
+    public String getType() { return type; }
+    public int[] getCategoryIds() { return categoryIds.clone(); }
+    public long getMinAmount() { return minAmount; }
+    public long getMaxAmount() { return maxAmount; }
+    public long getStartTime() { return startTime; }
+    public long getEndTime() { return endTime; }
+    public String getText() { return text; }
+    public Sort getSort() { return sort; }
+
+    public boolean hasCategories() {
+        return categoryIds.length > 0;
+    }
+
+    public boolean hasCategory(int categoryId) {
+        return Arrays.binarySearch(categoryIds, categoryId) >= 0;
+    }
+
+    public boolean hasAmountRange() {
+        return minAmount > 0 || maxAmount < Long.MAX_VALUE;
+    }
+
+    public boolean hasDateRange() {
+        return startTime > 0 || endTime < Long.MAX_VALUE;
+    }
+
+    public boolean hasText() {
+        return text != null;
+    }
+
+    /** Number of criteria set beyond type and sort: categories, amount, date and text. */
+    public int getCriteriaCount() {
+        return (hasCategories() ? 1 : 0) + (hasAmountRange() ? 1 : 0)
+                + (hasDateRange() ? 1 : 0) + (hasText() ? 1 : 0);
+    }
+
+    /**
+     * Whether a row belongs in this filter's results; mirrors the SQL WHERE
+     * clause except for text, which needs the full-text index. Callers with
+     * a text filter re-query instead.
+     */
+    public boolean matches(Transaction transaction) {
+        return (type == null || type.equals(transaction.getType()))
+                && (categoryIds.length == 0 || hasCategory(transaction.getCategoryId()))
+                && transaction.getAmount() >= minAmount
+                && transaction.getAmount() <= maxAmount
+                && transaction.getTimestamp() >= startTime
+                && transaction.getTimestamp() < endTime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TransactionFilter)) return false;
+        TransactionFilter other = (TransactionFilter) o;
+        return minAmount == other.minAmount && maxAmount == other.maxAmount
+                && startTime == other.startTime && endTime == other.endTime
+                && Objects.equals(type, other.type)
+                && Arrays.equals(categoryIds, other.categoryIds)
+                && Objects.equals(text, other.text)
+                && sort == other.sort;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(type, minAmount, maxAmount, startTime, endTime, text, sort);
+        return 31 * result + Arrays.hashCode(categoryIds);
+    }
+}
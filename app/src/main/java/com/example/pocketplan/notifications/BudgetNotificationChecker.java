@@ -4,7 +4,11 @@ package com.example.pocketplan.notifications;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+import com.example.pocketplan.CategoryRegistry;
 import com.example.pocketplan.DatabaseHelper;
+import com.example.pocketplan.aggregation.TransactionAggregator;
+import com.example.pocketplan.models.Category;
+import com.example.pocketplan.utils.Money;
 
 /**
  * Call checkAllCategories() right after any transaction is saved.
@@ -16,37 +20,30 @@ public class BudgetNotificationChecker {
     private static final String PREFS_BUDGET  = "BudgetPrefs";
     private static final String PREFS_ALERTED = "BudgetAlerted"; // tracks already-notified
 
-    // Must match category names used in AddTransactionActivity
-    private static final String[][] CATEGORIES = {
-            {"Food & Dining",    "budget_food"},
-            {"Transportation",   "budget_transport"},
-            {"Shopping",         "budget_shopping"},
-            {"Bills & Utilities","budget_bills"},
-            {"Entertainment",    "budget_entertainment"},
-            {"Other",            "budget_other"},
-    };
-
     public static void checkAllCategories(Context context) {
-        DatabaseHelper db     = new DatabaseHelper(context);
+        DatabaseHelper db     = DatabaseHelper.getInstance(context);
         SharedPreferences budgetPrefs  = context.getSharedPreferences(PREFS_BUDGET,  Context.MODE_PRIVATE);
         SharedPreferences alertedPrefs = context.getSharedPreferences(PREFS_ALERTED, Context.MODE_PRIVATE);
+        TransactionAggregator spent = new TransactionAggregator();
+        db.aggregateMonths(0, Long.MAX_VALUE, spent);
 
-        for (String[] cat : CATEGORIES) {
-            String name      = cat[0];
-            String prefKey   = cat[1];
+        for (Category cat : CategoryRegistry.getInstance(context).getBudgetCategories()) {
+            String name      = cat.getName();
+            String prefKey   = cat.getBudgetKey();
 
             float  budget = budgetPrefs.getFloat(prefKey, 0f);
             if (budget <= 0) continue; // no budget set for this category
 
-            double spent  = db.getExpenseByCategory(name);
+            // Budgets are saved in rupees, totals come back in paise
+            long   spentPaise = spent.getCategoryTotal(TransactionAggregator.EXPENSE, cat.getId());
 
-            if (spent > budget) {
+            if (spentPaise > Money.toMinor(budget)) {
                 // Only notify once per threshold crossing (reset when budget is saved again)
                 String alertKey = "alerted_" + prefKey;
                 boolean alreadyAlerted = alertedPrefs.getBoolean(alertKey, false);
 
                 if (!alreadyAlerted) {
-                    NotificationHelper.showBudgetExceeded(context, name, spent, budget);
+                    NotificationHelper.showBudgetExceeded(context, name, spentPaise, Money.toMinor(budget));
                     alertedPrefs.edit().putBoolean(alertKey, true).apply();
                 }
             } else {
@@ -54,8 +51,6 @@ public class BudgetNotificationChecker {
                 alertedPrefs.edit().putBoolean("alerted_" + prefKey, false).apply();
             }
         }
-
-        db.close();
     }
 
     /** Call this when user saves new budgets so alerts can re-trigger if needed. */
@@ -5,6 +5,7 @@ import android.content.Context;
 import android.content.SharedPreferences;
 
 import com.example.pocketplan.DatabaseHelper;
+import com.example.pocketplan.utils.Money;
 
 /**
  * Call check() after every transaction is saved.
@@ -23,17 +24,12 @@ public class LowBalanceChecker {
         double threshold = Double.longBitsToDouble(
                 prefs.getLong(KEY_THRESHOLD, Double.doubleToLongBits(DEFAULT_THRESHOLD)));
 
-        DatabaseHelper db = new DatabaseHelper(context);
-        double salary  = db.getSalary();
-        double income  = db.getTotalIncome();
-        double expense = db.getTotalExpense();
-        double balance = salary + income - expense;
-        db.close();
+        long balance = DatabaseHelper.getInstance(context).getBalance(); // paise
 
-        if (balance < threshold) {
+        if (balance < Money.toMinor(threshold)) {
             boolean alreadyAlerted = prefs.getBoolean(KEY_ALERTED, false);
             if (!alreadyAlerted) {
-                NotificationHelper.showLowBalance(context, balance, threshold);
+                NotificationHelper.showLowBalance(context, balance, Money.toMinor(threshold));
                 prefs.edit().putBoolean(KEY_ALERTED, true).apply();
             }
         } else {
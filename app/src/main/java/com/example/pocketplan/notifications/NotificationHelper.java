@@ -12,6 +12,7 @@ import androidx.core.app.NotificationManagerCompat;
 
 import com.example.pocketplan.DashboardActivity;
 import com.example.pocketplan.R;
+import com.example.pocketplan.utils.MoneyFormatter;
 
 public class NotificationHelper {
 
@@ -47,34 +48,57 @@ public class NotificationHelper {
     }
 
     // ─── Budget Exceeded ─────────────────────────────────────────────────────────
+    // Amounts are in paise
     public static void showBudgetExceeded(Context context, String category,
-                                          double spent, double budget) {
+                                          long spent, long budget) {
+        MoneyFormatter money = MoneyFormatter.getInstance();
         String title = "⚠️ Budget Exceeded: " + category;
-        String body  = String.format("You've spent ₹%.0f of your ₹%.0f budget.", spent, budget);
+        String body  = "You've spent " + money.formatWhole(spent)
+                + " of your " + money.formatWhole(budget) + " budget.";
         int notifId  = NOTIF_BUDGET_BASE + Math.abs(category.hashCode() % 500);
 
         show(context, CHANNEL_BUDGET, notifId, title, body);
     }
 
     // ─── Weekly Summary ──────────────────────────────────────────────────────────
+    // Amounts are in paise; topCategories and topAmounts run in parallel, largest first
     public static void showWeeklySummary(Context context,
-                                         double weeklyExpense,
-                                         double weeklyIncome,
-                                         String topCategory) {
+                                         long weeklyExpense,
+                                         long weeklyIncome,
+                                         long previousExpense,
+                                         String[] topCategories,
+                                         long[] topAmounts) {
+        MoneyFormatter money = MoneyFormatter.getInstance();
         String title = "📊 Your Weekly Summary";
-        String body  = String.format(
-                "Spent: ₹%.0f  |  Earned: ₹%.0f\nTop category: %s",
-                weeklyExpense, weeklyIncome, topCategory.isEmpty() ? "N/A" : topCategory);
+        StringBuilder body = new StringBuilder("Spent: ").append(money.formatWhole(weeklyExpense))
+                .append(weekOverWeek(weeklyExpense, previousExpense))
+                .append("  |  Earned: ").append(money.formatWhole(weeklyIncome))
+                .append("\nTop categories: ");
+        if (topCategories.length == 0) {
+            body.append("N/A");
+        }
+        for (int i = 0; i < topCategories.length; i++) {
+            if (i > 0) body.append(", ");
+            body.append(topCategories[i]).append(' ').append(money.formatWhole(topAmounts[i]));
+        }
+
+        show(context, CHANNEL_WEEKLY, NOTIF_WEEKLY, title, body.toString());
+    }
 
-        show(context, CHANNEL_WEEKLY, NOTIF_WEEKLY, title, body);
+    // " (▲12% vs last week)", or nothing when last week had no spending to compare with
+    static String weekOverWeek(long current, long previous) {
+        if (previous <= 0) return "";
+        long percent = Math.round((current - previous) * 100.0 / previous);
+        if (percent == 0) return " (same as last week)";
+        return " (" + (percent > 0 ? "▲" : "▼") + Math.abs(percent) + "% vs last week)";
     }
 
     // ─── Low Balance ─────────────────────────────────────────────────────────────
-    public static void showLowBalance(Context context, double balance, double threshold) {
+    public static void showLowBalance(Context context, long balance, long threshold) {
+        MoneyFormatter money = MoneyFormatter.getInstance();
         String title = "💸 Low Balance Warning";
-        String body  = String.format(
-                "Your balance is ₹%.0f, which is below your ₹%.0f threshold.",
-                balance, threshold);
+        String body  = "Your balance is " + money.formatWhole(balance)
+                + ", which is below your " + money.formatWhole(threshold) + " threshold.";
 
         show(context, CHANNEL_BALANCE, NOTIF_LOW_BALANCE, title, body);
     }
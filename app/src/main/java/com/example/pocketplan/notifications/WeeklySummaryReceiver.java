@@ -5,58 +5,82 @@ import android.content.Context;
 import android.content.Intent;
 import android.util.Log;
 
+import com.example.pocketplan.CategoryRegistry;
 import com.example.pocketplan.DatabaseHelper;
-import com.example.pocketplan.models.Transaction;
+import com.example.pocketplan.TransactionRepository;
+import com.example.pocketplan.aggregation.TransactionAggregator;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Calendar;
 
 /**
  * Fires every Sunday at the scheduled time.
- * Calculates the past 7 days of spending/income and shows a summary notification.
+ * Sums the past 7 days of spending/income from the daily rollups, compares
+ * spending with the 7 days before, and shows a summary notification with
+ * the top three spending categories.
  */
 public class WeeklySummaryReceiver extends BroadcastReceiver {
 
     private static final String TAG = "WeeklySummaryReceiver";
+    private static final int TOP_CATEGORIES = 3;
 
     @Override
     public void onReceive(Context context, Intent intent) {
         Log.d(TAG, "Weekly summary alarm triggered");
 
-        DatabaseHelper db = new DatabaseHelper(context);
+        // Queries run on the repository's background pool; keep the broadcast alive until done
+        PendingResult pendingResult = goAsync();
+        Context appContext = context.getApplicationContext();
+        boolean queued = TransactionRepository.getInstance(appContext).runInBackground(() -> {
+            try {
+                showSummary(appContext);
+            } finally {
+                pendingResult.finish();
+            }
+        });
+        if (!queued) {
+            Log.w(TAG, "Database queue full, skipping this week's summary");
+            pendingResult.finish();
+        }
+    }
 
-        // Time window: last 7 days
-        long now       = System.currentTimeMillis();
-        long weekStart = now - (7L * 24 * 60 * 60 * 1000);
+    private void showSummary(Context context) {
+        DatabaseHelper db = DatabaseHelper.getInstance(context);
 
-        double weeklyExpense = 0;
-        double weeklyIncome  = 0;
-        Map<String, Double> categoryTotals = new HashMap<>();
+        // Time window: the last 7 local days, including today (matches the daily rollups)
+        long now = System.currentTimeMillis();
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(now);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        cal.add(Calendar.DAY_OF_YEAR, -6);
+        long weekStart = cal.getTimeInMillis();
 
-        List<Transaction> transactions = db.getAllTransactions();
-        for (Transaction t : transactions) {
-            if (t.getTimestamp() < weekStart) continue;
-            if (t.isIncome()) {
-                weeklyIncome += t.getAmount();
-            } else {
-                weeklyExpense += t.getAmount();
-                categoryTotals.merge(t.getCategory(), t.getAmount(), Double::sum);
-            }
-        }
+        // The 7 days before that, for the week-over-week change
+        cal.add(Calendar.DAY_OF_YEAR, -7);
+        long previousWeekStart = cal.getTimeInMillis();
 
-        // Find top spending category
-        String topCategory = "";
-        double topAmount   = 0;
-        for (Map.Entry<String, Double> entry : categoryTotals.entrySet()) {
-            if (entry.getValue() > topAmount) {
-                topAmount   = entry.getValue();
-                topCategory = entry.getKey();
-            }
-        }
+        // One pass each over the weeks' daily rollup rows (primary-key range scans)
+        TransactionAggregator week = new TransactionAggregator();
+        db.aggregateDays(weekStart, now, week);
+        TransactionAggregator previousWeek = new TransactionAggregator();
+        db.aggregateDays(previousWeekStart, weekStart, previousWeek);
 
-        db.close();
+        long weeklyExpense   = week.getTotal(TransactionAggregator.EXPENSE);
+        long weeklyIncome    = week.getTotal(TransactionAggregator.INCOME);
+        long previousExpense = previousWeek.getTotal(TransactionAggregator.EXPENSE);
+
+        int[] topIds = week.getTopCategories(TransactionAggregator.EXPENSE, TOP_CATEGORIES);
+        String[] topNames = new String[topIds.length];
+        long[] topAmounts = new long[topIds.length];
+        CategoryRegistry categories = CategoryRegistry.getInstance(context);
+        for (int i = 0; i < topIds.length; i++) {
+            topNames[i]   = categories.get(topIds[i]).getName();
+            topAmounts[i] = week.getCategoryTotal(TransactionAggregator.EXPENSE, topIds[i]);
+        }
 
-        NotificationHelper.showWeeklySummary(context, weeklyExpense, weeklyIncome, topCategory);
+        NotificationHelper.showWeeklySummary(context, weeklyExpense, weeklyIncome, previousExpense,
+                topNames, topAmounts);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.example.pocketplan.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between rupee amounts typed or shown in the UI and the
+ * paise (1/100 rupee) values stored in the database. Display strings
+ * come from MoneyFormatter.
+ */
+public final class Money {
+
+    private Money() {}
+
+    /**
+     * Parse user input such as "120" or "99.95" into paise.
+     * Anything beyond two decimal places is rounded half-up.
+     * @throws NumberFormatException if the text is not a number or overflows
+     */
+    public static long parseMinor(String text) {
+        try {
+            return new BigDecimal(text.trim())
+                    .movePointRight(2)
+                    .setScale(0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    /** Paise as plain text for an input field, the inverse of parseMinor(): 1250 gives "12.5". */
+    public static String toPlainString(long paise) {
+        return BigDecimal.valueOf(paise, 2).stripTrailingZeros().toPlainString();
+    }
+
+    /** Rupees to paise, rounded to the nearest paisa. */
+    public static long toMinor(double rupees) {
+        return Math.round(rupees * 100);
+    }
+
+    /** Paise to rupees, for charts and other display-only maths. */
+    public static double toMajor(long paise) {
+        return paise / 100.0;
+    }
+}
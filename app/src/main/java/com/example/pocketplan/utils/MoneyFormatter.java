@@ -0,0 +1,121 @@
+package com.example.pocketplan.utils;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formats paise amounts for display as rupees with Indian digit grouping,
+ * e.g. "₹12,34,567.50" or "-₹1,200". Separators, digits and the minus sign
+ * come from the locale.
+ *
+ * One immutable instance per locale is cached, so a formatter can be shared
+ * between threads. The appendTo methods write straight into a caller's
+ * StringBuilder and allocate nothing; format() and formatWhole() are the
+ * convenient String versions.
+ */
+public final class MoneyFormatter {
+
+    private static final char RUPEE = '₹';
+
+    private static final ConcurrentHashMap<Locale, MoneyFormatter> CACHE = new ConcurrentHashMap<>();
+    private static volatile MoneyFormatter defaultInstance;
+
+    private final Locale locale;
+    private final char zeroDigit;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final char minusSign;
+
+    /** Formatter for the current default locale. */
+    public static MoneyFormatter getInstance() {
+        MoneyFormatter formatter = defaultInstance;
+        Locale locale = Locale.getDefault();
+        if (formatter == null || !formatter.locale.equals(locale)) {
+            formatter = getInstance(locale);
+            defaultInstance = formatter;
+        }
+        return formatter;
+    }
+
+    public static MoneyFormatter getInstance(Locale locale) {
+        MoneyFormatter formatter = CACHE.get(locale);
+        if (formatter == null) {
+            formatter = new MoneyFormatter(locale);
+            MoneyFormatter existing = CACHE.putIfAbsent(locale, formatter);
+            if (existing != null) formatter = existing;
+        }
+        return formatter;
+    }
+
+    private MoneyFormatter(Locale locale) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.locale = locale;
+        this.zeroDigit = symbols.getZeroDigit();
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.minusSign = symbols.getMinusSign();
+    }
+
+    // ─── Strings ─────────────────────────────────────────────────────────────────
+
+    /** "₹1,234.50" */
+    public String format(long paise) {
+        return appendTo(new StringBuilder(20), paise).toString();
+    }
+
+    /** "₹1,235": rounded half-up to whole rupees. */
+    public String formatWhole(long paise) {
+        return appendWholeTo(new StringBuilder(20), paise).toString();
+    }
+
+    // ─── Appending ───────────────────────────────────────────────────────────────
+
+    /** Same as format(), appended to sb. */
+    public StringBuilder appendTo(StringBuilder sb, long paise) {
+        appendSign(sb, paise);
+        long abs = Math.abs(paise);
+        appendGrouped(sb, abs / 100);
+        long fraction = abs % 100;
+        return sb.append(decimalSeparator)
+                .append((char) (zeroDigit + fraction / 10))
+                .append((char) (zeroDigit + fraction % 10));
+    }
+
+    /** Same as formatWhole(), appended to sb. */
+    public StringBuilder appendWholeTo(StringBuilder sb, long paise) {
+        long rupees = (Math.abs(paise) + 50) / 100;
+        appendSign(sb, rupees == 0 ? 0 : paise);
+        return appendGrouped(sb, rupees);
+    }
+
+    private void appendSign(StringBuilder sb, long paise) {
+        if (paise < 0) {
+            sb.append(minusSign);
+        }
+        sb.append(RUPEE);
+    }
+
+    // Indian grouping: the last three digits, then pairs (12,34,567).
+    // Digits are written backwards and the run reversed in place, so no
+    // scratch buffer is needed.
+    private StringBuilder appendGrouped(StringBuilder sb, long value) {
+        int start = sb.length();
+        int digits = 0;
+        do {
+            if (digits >= 3 && (digits - 3) % 2 == 0) {
+                sb.append(groupingSeparator);
+            }
+            sb.append((char) (zeroDigit + value % 10));
+            value /= 10;
+            digits++;
+        } while (value > 0);
+
+        for (int i = start, j = sb.length() - 1; i < j; i++, j--) {
+            char c = sb.charAt(i);
+            sb.setCharAt(i, sb.charAt(j));
+            sb.setCharAt(j, c);
+        }
+        return sb;
+    }
+}
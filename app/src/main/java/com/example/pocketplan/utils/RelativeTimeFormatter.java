@@ -0,0 +1,90 @@
+package com.example.pocketplan.utils;
+
+import java.text.DateFormatSymbols;
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * Formats transaction times the way the list shows them ("Today, 9:05 AM",
+ * "Yesterday, …", "Monday, …", "Mar 04, …") without allocating per call.
+ * Day cut-offs are computed once and only recomputed when the date changes;
+ * month/weekday/AM-PM names are looked up once per instance.
+ *
+ * Not thread-safe; meant for one adapter on the main thread.
+ */
+public final class RelativeTimeFormatter {
+
+    private final Calendar calendar;
+    private final String[] weekdays;    // indexed by Calendar.DAY_OF_WEEK
+    private final String[] shortMonths; // indexed by Calendar.MONTH
+    private final String[] amPm;        // indexed by Calendar.AM_PM
+
+    // Cut-offs for the current day; valid while startOfToday <= now < startOfTomorrow
+    private long startOfTomorrow = Long.MIN_VALUE;
+    private long startOfToday = Long.MAX_VALUE;
+    private long startOfYesterday;
+    private long startOfWeek; // six days before today; older times show the date
+
+    public RelativeTimeFormatter(Locale locale) {
+        calendar = Calendar.getInstance(locale);
+        DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+        weekdays = symbols.getWeekdays();
+        shortMonths = symbols.getShortMonths();
+        amPm = symbols.getAmPmStrings();
+    }
+
+    /** Append the display form of timestamp, relative to now, to out. */
+    public void appendTo(StringBuilder out, long timestamp, long now) {
+        if (now < startOfToday || now >= startOfTomorrow) {
+            refreshCutoffs(now);
+        }
+
+        calendar.setTimeInMillis(timestamp);
+        if (timestamp >= startOfToday && timestamp < startOfTomorrow) {
+            out.append("Today, ");
+        } else if (timestamp >= startOfYesterday && timestamp < startOfToday) {
+            out.append("Yesterday, ");
+        } else if (timestamp >= startOfWeek && timestamp < startOfToday) {
+            out.append(weekdays[calendar.get(Calendar.DAY_OF_WEEK)]).append(", ");
+        } else {
+            out.append(shortMonths[calendar.get(Calendar.MONTH)]).append(' ');
+            appendTwoDigits(out, calendar.get(Calendar.DAY_OF_MONTH));
+            out.append(", ");
+        }
+
+        // h:mm a
+        int hour = calendar.get(Calendar.HOUR);
+        appendHour(out, hour == 0 ? 12 : hour);
+        out.append(':');
+        appendTwoDigits(out, calendar.get(Calendar.MINUTE));
+        out.append(' ').append(amPm[calendar.get(Calendar.AM_PM)]);
+    }
+
+    private void refreshCutoffs(long now) {
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        startOfToday = calendar.getTimeInMillis();
+        calendar.add(Calendar.DAY_OF_YEAR, 1);
+        startOfTomorrow = calendar.getTimeInMillis();
+        calendar.add(Calendar.DAY_OF_YEAR, -2);
+        startOfYesterday = calendar.getTimeInMillis();
+        calendar.add(Calendar.DAY_OF_YEAR, -5);
+        startOfWeek = calendar.getTimeInMillis();
+    }
+
+    // Digits are appended as chars: append(int) may go through a temporary
+    // buffer on some runtimes
+    private static void appendHour(StringBuilder out, int hour) {
+        if (hour >= 10) {
+            out.append('1');
+        }
+        out.append((char) ('0' + hour % 10));
+    }
+
+    private static void appendTwoDigits(StringBuilder out, int value) {
+        out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
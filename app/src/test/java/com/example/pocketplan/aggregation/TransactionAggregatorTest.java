@@ -0,0 +1,88 @@
+package com.example.pocketplan.aggregation;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.example.pocketplan.aggregation.TransactionAggregator.EXPENSE;
+import static com.example.pocketplan.aggregation.TransactionAggregator.INCOME;
+import static org.junit.Assert.*;
+
+public class TransactionAggregatorTest {
+
+    private TransactionAggregator aggregator;
+
+    // Three day-key buckets: the 10th, 11th and 12th
+    @Before
+    public void setUp() {
+        aggregator = new TransactionAggregator(new long[]{20250310, 20250311, 20250312}, 20250313);
+    }
+
+    @Test
+    public void onePass_fillsEveryAccumulator() {
+        aggregator.add(20250310, EXPENSE, 1, 2_000);
+        aggregator.add(20250311, EXPENSE, 2, 5_000, 3); // a rollup row for three transactions
+        aggregator.add(20250312, EXPENSE, 1, 1_000);
+        aggregator.add(20250312, INCOME, 9, 50_000);
+
+        assertEquals(8_000, aggregator.getTotal(EXPENSE));
+        assertEquals(5, aggregator.getCount(EXPENSE));
+        assertEquals(50_000, aggregator.getTotal(INCOME));
+        assertEquals(1, aggregator.getCount(INCOME));
+        assertEquals(3_000, aggregator.getCategoryTotal(EXPENSE, 1));
+        assertEquals(0, aggregator.getCategoryTotal(INCOME, 1));
+        assertArrayEquals(new long[]{2_000, 5_000, 1_000}, aggregator.getSeries(EXPENSE));
+        assertArrayEquals(new long[]{0, 0, 50_000}, aggregator.getSeries(INCOME));
+        assertArrayEquals(new int[]{1, 2}, aggregator.getCategoryIds(EXPENSE));
+        assertEquals(2, aggregator.getMaxCategory(EXPENSE));
+    }
+
+    @Test
+    public void recordsOutsideSeries_stillCountInTotals() {
+        aggregator.add(20250309, EXPENSE, 1, 100);
+        aggregator.add(20250313, EXPENSE, 1, 200);
+
+        assertEquals(300, aggregator.getTotal(EXPENSE));
+        assertArrayEquals(new long[3], aggregator.getSeries(EXPENSE));
+    }
+
+    @Test
+    public void unknownTypeIgnored_negativeCategorySkipsCategories() {
+        aggregator.add(20250310, TransactionAggregator.typeOf("TRANSFER"), 1, 100);
+        aggregator.add(20250310, EXPENSE, -1, 700);
+
+        assertEquals(700, aggregator.getTotal(EXPENSE));
+        assertEquals(0, aggregator.getCategoryIds(EXPENSE).length);
+        assertEquals(-1, aggregator.getMaxCategory(EXPENSE));
+    }
+
+    @Test
+    public void categoryArrays_growForLargeIds() {
+        aggregator.add(20250310, EXPENSE, 1_000, 42);
+        assertEquals(42, aggregator.getCategoryTotal(EXPENSE, 1_000));
+        assertEquals(0, aggregator.getCategoryTotal(EXPENSE, 5_000));
+    }
+
+    @Test
+    public void topCategories_largestFirst_tiesToLowerId() {
+        aggregator.add(0, EXPENSE, 5, 300);
+        aggregator.add(0, EXPENSE, 2, 900);
+        aggregator.add(0, EXPENSE, 7, 300);
+        aggregator.add(0, EXPENSE, 3, 100);
+        aggregator.add(0, EXPENSE, 4, 600);
+
+        assertArrayEquals(new int[]{2, 4, 5}, aggregator.getTopCategories(EXPENSE, 3));
+        assertArrayEquals(new int[]{2, 4, 5, 7, 3}, aggregator.getTopCategories(EXPENSE, 10));
+        assertEquals(0, aggregator.getTopCategories(EXPENSE, 0).length);
+    }
+
+    @Test
+    public void clear_resetsEverything() {
+        aggregator.add(20250310, EXPENSE, 3, 500);
+        aggregator.clear();
+
+        assertEquals(0, aggregator.getTotal(EXPENSE));
+        assertEquals(0, aggregator.getCount(EXPENSE));
+        assertEquals(0, aggregator.getCategoryTotal(EXPENSE, 3));
+        assertArrayEquals(new long[3], aggregator.getSeries(EXPENSE));
+    }
+}
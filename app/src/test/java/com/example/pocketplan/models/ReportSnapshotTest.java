@@ -0,0 +1,84 @@
+package com.example.pocketplan.models;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+public class ReportSnapshotTest {
+
+    private static final long DAY = 86_400_000L;
+
+    private static ReportSnapshot snapshot(long now) {
+        return new ReportSnapshot(3, 42, new BalanceSnapshot(5_000_000, 120_000, 80_000, 2, 7),
+                new int[]{1, 4}, new long[]{30_000, 50_000},
+                ReportSnapshot.firstMonthStart(now), new long[]{0, 0, 0, 10_000, 0, 70_000},
+                ReportSnapshot.weekStart(now), new long[]{1, 2, 3, 4, 5, 6, 7});
+    }
+
+    @Test
+    public void writeThenRead_keepsFigures_andTakesNewDataVersion() throws IOException {
+        long now = System.currentTimeMillis();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot(now).writeTo(new DataOutputStream(bytes));
+
+        ReportSnapshot read = ReportSnapshot.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 9);
+
+        assertEquals(9, read.getDataVersion());
+        assertEquals(42, read.getChangeCount());
+        assertEquals(5_000_000, read.getBalance().getSalary());
+        assertEquals(7, read.getBalance().getExpenseCount());
+        assertEquals(50_000, read.getCategoryExpense(4));
+        assertEquals(80_000, read.getTotalCategoryExpense());
+        assertArrayEquals(new long[]{0, 0, 0, 10_000, 0, 70_000}, read.getMonthlyExpense());
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5, 6, 7}, read.getDailyExpense());
+        assertTrue(read.isCurrent(now));
+    }
+
+    @Test(expected = IOException.class)
+    public void read_rejectsTruncatedData() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot(System.currentTimeMillis()).writeTo(new DataOutputStream(bytes));
+        byte[] truncated = java.util.Arrays.copyOf(bytes.toByteArray(), 20);
+
+        ReportSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(truncated)), 0);
+    }
+
+    @Test
+    public void categoryWithoutExpense_isZero() {
+        assertEquals(0, snapshot(System.currentTimeMillis()).getCategoryExpense(2));
+    }
+
+    @Test
+    public void isCurrent_endsWithTheWeek() {
+        long now = System.currentTimeMillis();
+        ReportSnapshot report = snapshot(now);
+        assertFalse(report.isCurrent(report.getWeekStart() + 8 * DAY));
+        assertFalse(report.isCurrent(report.getWeekStart() - 1));
+    }
+
+    @Test
+    public void windows_startOnMondayAndFiveMonthsBack() {
+        Calendar now = Calendar.getInstance();
+        now.set(2025, Calendar.MARCH, 13, 15, 30); // a Thursday
+
+        Calendar week = Calendar.getInstance();
+        week.setTimeInMillis(ReportSnapshot.weekStart(now.getTimeInMillis()));
+        assertEquals(Calendar.MONDAY, week.get(Calendar.DAY_OF_WEEK));
+        assertEquals(10, week.get(Calendar.DAY_OF_MONTH));
+        assertEquals(0, week.get(Calendar.HOUR_OF_DAY));
+
+        Calendar month = Calendar.getInstance();
+        month.setTimeInMillis(ReportSnapshot.firstMonthStart(now.getTimeInMillis()));
+        assertEquals(2024, month.get(Calendar.YEAR));
+        assertEquals(Calendar.OCTOBER, month.get(Calendar.MONTH));
+        assertEquals(1, month.get(Calendar.DAY_OF_MONTH));
+    }
+}
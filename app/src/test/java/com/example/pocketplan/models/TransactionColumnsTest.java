@@ -0,0 +1,95 @@
+package com.example.pocketplan.models;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TransactionColumnsTest {
+
+    private TransactionColumns columns;
+
+    // Newest first, as the default list order returns them
+    @Before
+    public void setUp() {
+        columns = new TransactionColumns(2);
+        columns.add(3, "Lunch", 1, 25_000, "EXPENSE", 3_000);
+        columns.add(2, "Salary", 11, 5_000_000, "INCOME", 2_000);
+        columns.add(1, new String("Lunch"), 1, 18_000, "EXPENSE", 1_000);
+    }
+
+    @Test
+    public void keepsRowsInOrder_andGrows() {
+        assertEquals(3, columns.size());
+        assertEquals(3, columns.getId(0));
+        assertEquals(5_000_000, columns.getAmount(1));
+        assertTrue(columns.isIncome(1));
+        assertFalse(columns.isIncome(2));
+        assertEquals(1_000, columns.getTimestamp(2));
+    }
+
+    @Test
+    public void repeatedTitles_shareOneString() {
+        assertSame(columns.getTitle(0), columns.getTitle(2));
+    }
+
+    @Test
+    public void get_buildsTransactionWithoutNote() {
+        Transaction t = columns.get(1);
+        assertEquals(2, t.getId());
+        assertEquals("Salary", t.getTitle());
+        assertEquals(11, t.getCategoryId());
+        assertEquals("INCOME", t.getType());
+        assertNull(t.getNote());
+    }
+
+    @Test
+    public void insertionPoint_followsSort() {
+        Transaction middle = new Transaction(4, "Tea", 1, 1_000, null, "EXPENSE", 2_500);
+        assertEquals(1, columns.insertionPoint(middle, TransactionFilter.Sort.DATE_DESC));
+
+        // Same timestamp as id 2: the higher id sorts first when descending
+        Transaction tie = new Transaction(5, "Tea", 1, 1_000, null, "EXPENSE", 2_000);
+        assertEquals(1, columns.insertionPoint(tie, TransactionFilter.Sort.DATE_DESC));
+
+        Transaction oldest = new Transaction(6, "Tea", 1, 1_000, null, "EXPENSE", 500);
+        assertEquals(3, columns.insertionPoint(oldest, TransactionFilter.Sort.DATE_DESC));
+    }
+
+    @Test
+    public void insertAndRemove_shiftEveryColumn() {
+        Transaction t = new Transaction(4, "Tea", 2, 1_000, null, "EXPENSE", 2_500);
+        columns.insert(1, t);
+        assertEquals(4, columns.size());
+        assertEquals(4, columns.getId(1));
+        assertEquals(2, columns.getId(2));
+        assertEquals(5_000_000, columns.getAmount(2));
+
+        columns.remove(columns.indexOfId(4));
+        assertEquals(3, columns.size());
+        assertEquals(2, columns.getId(1));
+        assertTrue(columns.isIncome(1));
+        assertEquals(-1, columns.indexOfId(4));
+    }
+
+    @Test
+    public void addAll_appendsPage() {
+        TransactionColumns next = new TransactionColumns(1);
+        next.add(0, "Lunch", 1, 9_000, "EXPENSE", 500);
+        columns.addAll(next);
+        assertEquals(4, columns.size());
+        assertEquals(0, columns.getId(3));
+        assertSame(columns.getTitle(0), columns.getTitle(3));
+    }
+
+    @Test
+    public void sortCompare_matchesComparator() {
+        Transaction a = new Transaction(1, "A", 1, 500, null, "EXPENSE", 10);
+        Transaction b = new Transaction(2, "B", 1, 500, null, "EXPENSE", 20);
+        for (TransactionFilter.Sort sort : TransactionFilter.Sort.values()) {
+            assertEquals(sort.name(),
+                    Integer.signum(sort.comparator().compare(a, b)),
+                    Integer.signum(sort.compare(sort.key(a), a.getId(), sort.key(b), b.getId())));
+        }
+    }
+}
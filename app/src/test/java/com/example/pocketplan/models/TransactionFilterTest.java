@@ -0,0 +1,72 @@
+package com.example.pocketplan.models;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TransactionFilterTest {
+
+    private static Transaction expense(int categoryId, long amount, long timestamp) {
+        return new Transaction(1, "Lunch", categoryId, amount, null, "EXPENSE", timestamp);
+    }
+
+    @Test
+    public void all_matchesEverythingAndCountsNoCriteria() {
+        assertTrue(TransactionFilter.ALL.matches(expense(1, 0, 0)));
+        assertEquals(0, TransactionFilter.ALL.getCriteriaCount());
+    }
+
+    @Test
+    public void withCategories_sortsAndDropsDuplicates() {
+        TransactionFilter filter = TransactionFilter.ALL.withCategories(5, 2, 5, 9);
+        assertArrayEquals(new int[]{2, 5, 9}, filter.getCategoryIds());
+        assertTrue(filter.hasCategory(5));
+        assertFalse(filter.hasCategory(3));
+    }
+
+    @Test
+    public void withCategory_negativeMeansAny() {
+        assertFalse(TransactionFilter.ALL.withCategory(4).withCategory(-1).hasCategories());
+    }
+
+    @Test
+    public void matches_appliesEveryCriterion() {
+        TransactionFilter filter = TransactionFilter.ALL.withType("EXPENSE")
+                .withCategories(1, 2)
+                .withAmountRange(1_000, 5_000)
+                .withDateRange(100, 200);
+
+        assertTrue(filter.matches(expense(2, 5_000, 100)));
+        assertFalse(filter.matches(expense(3, 2_000, 150)));  // category
+        assertFalse(filter.matches(expense(1, 999, 150)));    // below min
+        assertFalse(filter.matches(expense(1, 5_001, 150)));  // above max
+        assertFalse(filter.matches(expense(1, 2_000, 200)));  // end is exclusive
+        assertFalse(filter.matches(
+                new Transaction(1, "Refund", 1, 2_000, null, "INCOME", 150)));
+        assertEquals(3, filter.getCriteriaCount());
+    }
+
+    @Test
+    public void withText_trimsAndTreatsBlankAsNone() {
+        assertEquals("coffee", TransactionFilter.ALL.withText("  coffee ").getText());
+        assertFalse(TransactionFilter.ALL.withText("   ").hasText());
+        assertEquals(1, TransactionFilter.ALL.withText("tea").getCriteriaCount());
+    }
+
+    @Test
+    public void equals_comparesEveryField() {
+        TransactionFilter a = TransactionFilter.ALL.withCategories(2, 1).withAmountRange(0, 500);
+        TransactionFilter b = TransactionFilter.ALL.withCategories(1, 2).withAmountRange(0, 500);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, b.withSort(TransactionFilter.Sort.AMOUNT_DESC));
+        assertNotEquals(a, b.withText("tea"));
+    }
+
+    @Test
+    public void getCategoryIds_returnsCopy() {
+        TransactionFilter filter = TransactionFilter.ALL.withCategories(1, 2);
+        filter.getCategoryIds()[0] = 7;
+        assertArrayEquals(new int[]{1, 2}, filter.getCategoryIds());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.pocketplan.notifications;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WeeklySummaryTextTest {
+
+    @Test
+    public void weekOverWeek_increase() {
+        assertEquals(" (▲50% vs last week)", NotificationHelper.weekOverWeek(150_00, 100_00));
+    }
+
+    @Test
+    public void weekOverWeek_decrease() {
+        assertEquals(" (▼25% vs last week)", NotificationHelper.weekOverWeek(75_00, 100_00));
+        assertEquals(" (▼100% vs last week)", NotificationHelper.weekOverWeek(0, 100_00));
+    }
+
+    @Test
+    public void weekOverWeek_roundsToWholePercent() {
+        assertEquals(" (▲33% vs last week)", NotificationHelper.weekOverWeek(400_00, 300_00));
+        assertEquals(" (same as last week)", NotificationHelper.weekOverWeek(100_40, 100_00));
+    }
+
+    @Test
+    public void weekOverWeek_noPreviousSpending() {
+        assertEquals("", NotificationHelper.weekOverWeek(500_00, 0));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.pocketplan.utils;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class MoneyFormatterTest {
+
+    private final MoneyFormatter formatter = MoneyFormatter.getInstance(Locale.US);
+
+    @Test
+    public void format_usesIndianGrouping() {
+        assertEquals("₹0.00", formatter.format(0));
+        assertEquals("₹0.05", formatter.format(5));
+        assertEquals("₹999.50", formatter.format(99_950));
+        assertEquals("₹1,000.00", formatter.format(100_000));
+        assertEquals("₹12,345.67", formatter.format(1_234_567));
+        assertEquals("₹1,23,456.00", formatter.format(12_345_600));
+        assertEquals("₹12,34,56,789.01", formatter.format(12_345_678_901L));
+    }
+
+    @Test
+    public void format_negative() {
+        assertEquals("-₹1,200.50", formatter.format(-120_050));
+    }
+
+    @Test
+    public void formatWhole_roundsHalfUp() {
+        assertEquals("₹1,235", formatter.formatWhole(123_450));
+        assertEquals("₹1,234", formatter.formatWhole(123_449));
+        assertEquals("-₹1,235", formatter.formatWhole(-123_450));
+        assertEquals("₹0", formatter.formatWhole(-30));
+    }
+
+    @Test
+    public void appendTo_appendsToExistingText() {
+        StringBuilder sb = new StringBuilder("Spent: ");
+        formatter.appendWholeTo(sb, 250_000).append(" / ");
+        formatter.appendTo(sb, 5);
+        assertEquals("Spent: ₹2,500 / ₹0.05", sb.toString());
+    }
+
+    @Test
+    public void usesLocaleSeparators() {
+        MoneyFormatter german = MoneyFormatter.getInstance(Locale.GERMANY);
+        assertEquals("₹1.23.456,78", german.format(12_345_678));
+    }
+
+    @Test
+    public void instancesAreCachedPerLocale() {
+        assertSame(formatter, MoneyFormatter.getInstance(Locale.US));
+        assertNotSame(formatter, MoneyFormatter.getInstance(Locale.GERMANY));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.pocketplan.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class RelativeTimeFormatterTest {
+
+    private RelativeTimeFormatter formatter;
+    private long now; // Wednesday 6 March 2024, 3:00 PM local time
+
+    @Before
+    public void setUp() {
+        formatter = new RelativeTimeFormatter(Locale.US);
+        now = time(2024, Calendar.MARCH, 6, 15, 0);
+    }
+
+    @Test
+    public void today() {
+        assertEquals("Today, 9:05 AM", format(time(2024, Calendar.MARCH, 6, 9, 5), now));
+        assertEquals("Today, 12:00 AM", format(time(2024, Calendar.MARCH, 6, 0, 0), now));
+    }
+
+    @Test
+    public void yesterday() {
+        assertEquals("Yesterday, 11:59 PM", format(time(2024, Calendar.MARCH, 5, 23, 59), now));
+    }
+
+    @Test
+    public void thisWeek_showsWeekday() {
+        assertEquals("Sunday, 12:30 PM", format(time(2024, Calendar.MARCH, 3, 12, 30), now));
+        assertEquals("Thursday, 8:00 AM", format(time(2024, Calendar.FEBRUARY, 29, 8, 0), now));
+    }
+
+    @Test
+    public void older_showsDate() {
+        assertEquals("Feb 28, 8:00 AM", format(time(2024, Calendar.FEBRUARY, 28, 8, 0), now));
+        assertEquals("Jan 05, 7:15 PM", format(time(2024, Calendar.JANUARY, 5, 19, 15), now));
+    }
+
+    @Test
+    public void cutoffsMoveWithTheDate() {
+        long timestamp = time(2024, Calendar.MARCH, 6, 9, 5);
+        assertEquals("Today, 9:05 AM", format(timestamp, now));
+        long tomorrow = time(2024, Calendar.MARCH, 7, 1, 0);
+        assertEquals("Yesterday, 9:05 AM", format(timestamp, tomorrow));
+    }
+
+    @Test
+    public void appendsToExistingText() {
+        StringBuilder out = new StringBuilder("at ");
+        formatter.appendTo(out, time(2024, Calendar.MARCH, 6, 9, 5), now);
+        assertEquals("at Today, 9:05 AM", out.toString());
+    }
+
+    private String format(long timestamp, long now) {
+        StringBuilder out = new StringBuilder();
+        formatter.appendTo(out, timestamp, now);
+        return out.toString();
+    }
+
+    private static long time(int year, int month, int day, int hour, int minute) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month, day, hour, minute);
+        return cal.getTimeInMillis();
+    }
+}